@@ -0,0 +1,24 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so that every result
+ * comes with its allocation rate ({@code gc.alloc.rate.norm} being the bytes
+ * allocated per operation). The usual JMH command line options are accepted,
+ * for example a regular expression selecting the benchmarks to run.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        var options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+}
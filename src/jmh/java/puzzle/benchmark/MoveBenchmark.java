@@ -0,0 +1,108 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzle.model.Direction;
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move legality and successor generation. Every operation covers all the
+ * start states, checking every move of every piece.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveBenchmark {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private PuzzleState[] states;
+
+    private long[] packed;
+
+    private final int[] moves = new int[PackedState.MOVES];
+
+    @Setup
+    public void setUp() {
+        states = StartStates.all();
+        packed = new long[states.length];
+        for (var i = 0; i < states.length; i++) {
+            packed[i] = states[i].getPacked();
+        }
+    }
+
+    @Benchmark
+    public void puzzleStateCanMove(Blackhole blackhole) {
+        for (var state : states) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                for (var direction : DIRECTIONS) {
+                    blackhole.consume(state.canMove(tile, direction));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void packedStateCanMove(Blackhole blackhole) {
+        for (var state : packed) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                for (var direction : DIRECTIONS) {
+                    blackhole.consume(PackedState.canMove(state, tile, direction));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void moveGeneratorCanMove(Blackhole blackhole) {
+        for (var state : packed) {
+            var occupancy = MoveGenerator.occupancy(state);
+            for (var move = 0; move < PackedState.MOVES; move++) {
+                blackhole.consume(MoveGenerator.canMove(state, occupancy, move));
+            }
+        }
+    }
+
+    @Benchmark
+    public void overlapOf(Blackhole blackhole) {
+        for (var state : states) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                blackhole.consume(state.overlapOf(tile));
+            }
+        }
+    }
+
+    @Benchmark
+    public void legalMovesTreeMap(Blackhole blackhole) {
+        for (var state : states) {
+            blackhole.consume(state.getLegalMoves());
+        }
+    }
+
+    @Benchmark
+    public void successors(Blackhole blackhole) {
+        for (var state : packed) {
+            var count = MoveGenerator.successors(state, moves);
+            for (var i = 0; i < count; i++) {
+                blackhole.consume(PackedState.move(state, moves[i]));
+            }
+        }
+    }
+
+}
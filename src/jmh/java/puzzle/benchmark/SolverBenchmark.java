@@ -0,0 +1,54 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import puzzle.model.PuzzleState;
+import puzzle.solver.Node;
+import puzzle.solver.Solver;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end solves of the fixed start states.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SolverBenchmark {
+
+    // any name accepted by Solver.factory, such as parallel-bfs:8
+    @Param({"bfs", "parallel-bfs", "bidirectional", "astar"})
+    private String solver;
+
+    @Param({"0", "1", "2", "3"})
+    private int start;
+
+    private Solver instance;
+
+    private PuzzleState state;
+
+    @Setup
+    public void setUp() {
+        instance = Solver.factory(solver).get();
+        state = StartStates.get(start);
+    }
+
+    @Benchmark
+    public Optional<Node> solve() {
+        return instance.search(state);
+    }
+
+}
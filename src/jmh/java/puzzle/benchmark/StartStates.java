@@ -0,0 +1,49 @@
+package puzzle.benchmark;
+
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.util.Random;
+
+/**
+ * A fixed set of start states shared by the benchmarks: the original initial
+ * state and states reached from it by seeded random walks of growing length.
+ */
+final class StartStates {
+
+    static final int COUNT = 4;
+
+    private StartStates() {
+    }
+
+    /**
+     * {@return the start state with the index specified}
+     *
+     * @param index an index between zero (inclusive) and {@link #COUNT}
+     *              (exclusive)
+     */
+    static PuzzleState get(int index) {
+        var random = new Random(index);
+        var state = new PuzzleState();
+        for (var step = 0; step < 60 * index; step++) {
+            var tile = random.nextInt(5);
+            var direction = Direction.values()[random.nextInt(4)];
+            if (state.canMove(tile, direction)) {
+                state.move(tile, direction);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * {@return all the start states}
+     */
+    static PuzzleState[] all() {
+        var states = new PuzzleState[COUNT];
+        for (var i = 0; i < COUNT; i++) {
+            states[i] = get(i);
+        }
+        return states;
+    }
+
+}
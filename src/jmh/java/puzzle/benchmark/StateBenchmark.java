@@ -0,0 +1,70 @@
+package puzzle.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * State hashing, equality and copying, as done for every state a search
+ * reaches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StateBenchmark {
+
+    private PuzzleState[] states;
+
+    // equal to the states but distinct objects
+    private PuzzleState[] copies;
+
+    @Setup
+    public void setUp() {
+        states = StartStates.all();
+        copies = StartStates.all();
+    }
+
+    @Benchmark
+    public void hashCode(Blackhole blackhole) {
+        for (var state : states) {
+            blackhole.consume(state.hashCode());
+        }
+    }
+
+    @Benchmark
+    public void packedHash(Blackhole blackhole) {
+        for (var state : states) {
+            blackhole.consume(PackedState.hash(state.getPacked()));
+        }
+    }
+
+    @Benchmark
+    public void equals(Blackhole blackhole) {
+        for (var i = 0; i < states.length; i++) {
+            blackhole.consume(states[i].equals(copies[i]));
+        }
+    }
+
+    @Benchmark
+    public void cloneState(Blackhole blackhole) {
+        for (var state : states) {
+            blackhole.consume(state.clone());
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package puzzle.gui;
+
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Node;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.paint.Color;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+import puzzle.util.ImageStorage;
+import puzzle.util.SpriteAtlas;
+
+/**
+ * Draws the pieces of a {@link PuzzleState} on a {@link GridPane}, using a
+ * single node per piece that spans the two rows and two columns of the
+ * bounding box of the piece. When a piece moves, only the grid constraints of
+ * its node are updated, so a move costs O(1) and binding a new state costs
+ * O(pieces).
+ *
+ * <p>A piece is drawn with its image if the image storage has one, and
+ * otherwise with a region for each cell of its shape. The shape has the
+ * {@code piece} and {@code piece-<n>} style classes, its cells the
+ * {@code piece-cell} class.
+ */
+class BoardRenderer {
+
+    private static final Color[] COLORS = {
+            Color.GOLD, Color.FIREBRICK, Color.ROYALBLUE, Color.DIMGRAY, Color.SEAGREEN
+    };
+
+    private final Node[] pieces = new Node[PackedState.PIECES];
+
+    @SuppressWarnings("unchecked")
+    private final ChangeListener<Position>[] listeners = new ChangeListener[PackedState.PIECES];
+
+    private PuzzleState state;
+
+    /**
+     * Creates a renderer and adds the nodes of the pieces to the grid.
+     *
+     * @param grid the grid of the board
+     * @param images the images of the pieces, indexed by piece
+     */
+    BoardRenderer(GridPane grid, ImageStorage<Integer> images) {
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            var image = images.get(tile);
+            var piece = image != null ? new ImageView(image) : createShape(tile);
+            // clicks are handled by the squares underneath
+            piece.setMouseTransparent(true);
+            pieces[tile] = piece;
+            var n = tile;
+            listeners[tile] = (observable, oldValue, newValue) -> place(n, newValue);
+            grid.add(piece, 0, 0, 2, 2);
+        }
+    }
+
+    /**
+     * Draws the state specified from now on, forgetting the previous one.
+     *
+     * @param state the state to draw
+     */
+    void bind(PuzzleState state) {
+        if (this.state != null) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                this.state.positionProperty(tile).removeListener(listeners[tile]);
+            }
+        }
+        this.state = state;
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            var position = state.positionProperty(tile);
+            position.addListener(listeners[tile]);
+            place(tile, position.get());
+        }
+    }
+
+    /**
+     * Draws the pieces that have an image through the viewports of the atlas
+     * specified, so that they share a single texture.
+     *
+     * @param atlas an atlas packed from the images of the pieces, in the
+     *              order of the piece indices
+     */
+    void useAtlas(SpriteAtlas atlas) {
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            if (pieces[tile] instanceof ImageView view && atlas.getViewport(tile) != null) {
+                view.setImage(atlas.getImage());
+                view.setViewport(atlas.getViewport(tile));
+            }
+        }
+    }
+
+    private void place(int tile, Position position) {
+        GridPane.setRowIndex(pieces[tile], position.row());
+        GridPane.setColumnIndex(pieces[tile], position.col());
+    }
+
+    private Node createShape(int tile) {
+        var shape = new GridPane();
+        shape.getStyleClass().addAll("piece", "piece-" + tile);
+        // fill the two rows and columns spanned by the piece, half each
+        shape.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        for (var i = 0; i < 2; i++) {
+            var column = new ColumnConstraints();
+            column.setPercentWidth(50);
+            shape.getColumnConstraints().add(column);
+            var row = new RowConstraints();
+            row.setPercentHeight(50);
+            shape.getRowConstraints().add(row);
+        }
+        var origin = PackedState.withCell(0L, tile, 0);
+        for (var row = 0; row < 2; row++) {
+            for (var col = 0; col < 2; col++) {
+                if (PackedState.covers(origin, tile, row, col)) {
+                    var cell = new Region();
+                    cell.getStyleClass().add("piece-cell");
+                    // a default, that the style sheet may override
+                    cell.setBackground(Background.fill(COLORS[tile]));
+                    shape.add(cell, col, row);
+                }
+            }
+        }
+        return shape;
+    }
+
+}
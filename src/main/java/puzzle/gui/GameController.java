@@ -1,7 +1,8 @@
 package puzzle.gui;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.value.ObservableValue;
@@ -9,41 +10,73 @@ import javafx.fxml.FXML;
 import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.TextField;
-import javafx.scene.image.ImageView;
 import javafx.scene.input.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
 import org.tinylog.Logger;
+import puzzle.journal.MoveJournal;
 import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
 import puzzle.model.PuzzleState;
-import puzzle.util.ImageStorage;
-import puzzle.util.OrdinalImageStorage;
+import puzzle.solver.AStarSearch;
+import puzzle.util.SharedImageStorage;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
 
 public class GameController {
 
+    private static final Duration PLAYBACK_DELAY = Duration.millis(300);
+
+    // the directory of the move journals, one per game
+    private static final Path JOURNAL_DIRECTORY = Path.of(System.getProperty("puzzle.journal.dir",
+            Path.of(System.getProperty("user.home"), ".sliding-puzzle", "journal").toString()));
+
     @FXML
     private GridPane grid;
 
     @FXML
     private TextField numberOfMovesField;
 
-    private ImageStorage<Integer> imageStorage = new OrdinalImageStorage("/images",
+    // one image per piece, in the order of the piece indices
+    private SharedImageStorage imageStorage = new SharedImageStorage("/images",
             "block.png",
             "red-shoe.png",
             "blue-shoe.png",
-            "black-shoe.png");
+            "black-shoe.png",
+            "green-shoe.png");
+
+    private BoardRenderer renderer;
 
     private PuzzleState state;
 
+    private int selectedTile = PuzzleState.SQUARE;
+
     private IntegerProperty numberOfMoves = new SimpleIntegerProperty(0);
 
+    private HintEngine hints = new HintEngine(AStarSearch::new, Platform::runLater);
+
+    private Timeline playback;
+
+    private MoveJournal journal;
+
     @FXML
     private void initialize() {
         createControlBindings();
-        restartGame();
         populateGrid();
+        renderer = new BoardRenderer(grid, imageStorage);
+        imageStorage.atlas().whenComplete((atlas, e) -> {
+            if (e == null) {
+                Platform.runLater(() -> renderer.useAtlas(atlas));
+            } else {
+                Logger.warn("Drawing the pieces without a sprite atlas");
+            }
+        });
+        restartGame();
         registerKeyEventHandler();
     }
 
@@ -52,9 +85,12 @@ public class GameController {
     }
 
     private void restartGame() {
+        stopAssistance();
         state = new PuzzleState();
+        selectedTile = PuzzleState.SQUARE;
         numberOfMoves.set(0);
-        populateGrid();
+        openJournal();
+        renderer.bind(state);
         state.goalProperty().addListener(this::handleGameOver);
     }
 
@@ -71,7 +107,15 @@ public class GameController {
             restartGame();
         } else if (quitKeyCombination.match(keyEvent)) {
             Logger.debug("Exiting");
+            hints.close();
+            closeJournal();
             Platform.exit();
+        } else if (keyEvent.getCode() == KeyCode.H) {
+            Logger.debug("H pressed");
+            showHint();
+        } else if (keyEvent.getCode() == KeyCode.S) {
+            Logger.debug("S pressed");
+            solveFromHere();
         } else if (keyEvent.getCode() == KeyCode.UP) {
             Logger.debug("UP pressed");
             performMove(Direction.UP);
@@ -93,29 +137,124 @@ public class GameController {
         var row = GridPane.getRowIndex(source);
         var col = GridPane.getColumnIndex(source);
         Logger.debug("Click on square ({},{})", row, col);
-        var direction = getDirectionFromClick(row, col);
-        direction.ifPresentOrElse(this::performMove,
-                () -> Logger.warn("Click does not correspond to any direction"));
+        var tile = getTileFromClick(row, col);
+        tile.ifPresentOrElse(this::selectTile,
+                () -> Logger.warn("Click does not correspond to any piece"));
+    }
+
+    private void selectTile(int tile) {
+        Logger.info("Selecting piece {}", tile);
+        selectedTile = tile;
     }
 
     private void performMove(Direction direction) {
-        if (state.canMove(direction)) {
+        stopAssistance();
+        if (state.canMove(selectedTile, direction)) {
             Logger.info("Moving {}", direction);
-            state.move(direction);
-            Logger.trace("New state: {}", state);
-            numberOfMoves.set(numberOfMoves.get() + 1);
+            applyMove(selectedTile, direction);
         } else {
             Logger.warn("Invalid move: {}", direction);
         }
     }
 
+    private void applyMove(int tile, Direction direction) {
+        if (journal != null) {
+            try {
+                journal.append(tile, direction);
+            } catch (IOException e) {
+                Logger.warn(e, "Cannot write the move journal, no longer recording");
+                closeJournal();
+            }
+        }
+        state.move(tile, direction);
+        Logger.trace("New state: {}", state);
+        numberOfMoves.set(numberOfMoves.get() + 1);
+    }
+
+    private void applyMove(int move) {
+        selectedTile = PackedState.tileOf(move);
+        applyMove(selectedTile, PackedState.directionOf(move));
+    }
+
+    /**
+     * Makes the first move of a shortest solution from the current state.
+     * The search runs in the background and is dropped if the player moves
+     * in the meantime.
+     */
+    private void showHint() {
+        stopAssistance();
+        Logger.info("Searching for a hint");
+        hints.request(state, solution -> solution.ifPresentOrElse(moves -> {
+            if (moves.length > 0) {
+                Logger.info("Hint: move piece {} {}", PackedState.tileOf(moves[0]), PackedState.directionOf(moves[0]));
+                applyMove(moves[0]);
+            }
+        }, () -> Logger.warn("No solution from the current state")),
+                e -> Logger.warn("No hint, the search failed"));
+    }
+
+    /**
+     * Plays a shortest solution from the current state, one move every
+     * {@link #PLAYBACK_DELAY}. Any move of the player stops the playback.
+     */
+    private void solveFromHere() {
+        stopAssistance();
+        Logger.info("Searching for a solution");
+        hints.request(state, solution -> solution.ifPresentOrElse(moves -> {
+            Logger.info("Playing a solution of {} moves", moves.length);
+            var next = new int[1];
+            playback = new Timeline(new KeyFrame(PLAYBACK_DELAY, event -> applyMove(moves[next[0]++])));
+            playback.setCycleCount(moves.length);
+            playback.play();
+        }, () -> Logger.warn("No solution from the current state")),
+                e -> Logger.warn("No solution, the search failed"));
+    }
+
+    private void stopAssistance() {
+        hints.cancel();
+        if (playback != null) {
+            playback.stop();
+            playback = null;
+        }
+    }
+
+    /**
+     * Starts recording the moves of a new game in its own journal file. The
+     * game goes on unrecorded if the journal cannot be written.
+     */
+    private void openJournal() {
+        closeJournal();
+        try {
+            Files.createDirectories(JOURNAL_DIRECTORY);
+            var path = Files.createTempFile(JOURNAL_DIRECTORY, "session-", ".journal");
+            journal = MoveJournal.create(path, state.getPacked());
+            Logger.debug("Recording moves to {}", path);
+        } catch (IOException e) {
+            Logger.warn(e, "Cannot create a move journal in {}", JOURNAL_DIRECTORY);
+        }
+    }
+
+    private void closeJournal() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                Logger.warn(e, "Cannot close the move journal");
+            }
+            journal = null;
+        }
+    }
+
     private void handleGameOver(ObservableValue<? extends Boolean> observableValue, Boolean oldValue, Boolean newValue) {
         if (newValue) {
-            var alert = new Alert(Alert.AlertType.INFORMATION);
-            alert.setHeaderText("Game Over");
-            alert.setContentText("Congratulations, you have solved the puzzle!");
-            alert.showAndWait();
-            restartGame();
+            // showAndWait is not allowed while an animation frame is processed
+            Platform.runLater(() -> {
+                var alert = new Alert(Alert.AlertType.INFORMATION);
+                alert.setHeaderText("Game Over");
+                alert.setContentText("Congratulations, you have solved the puzzle!");
+                alert.showAndWait();
+                restartGame();
+            });
         }
     }
 
@@ -132,36 +271,18 @@ public class GameController {
         var square = new StackPane();
         square.getStyleClass().add("square");
         square.getStyleClass().add((row + col) % 2 == 0 ? "light": "dark");
-        for (var i = 0; i < 4; i++) {
-            var pieceView = new ImageView(imageStorage.get(i));
-            pieceView.visibleProperty().bind(createBindingForPieceAtPosition(i, row, col));
-            square.getChildren().add(pieceView);
-        }
         square.setOnMouseClicked(this::handleMouseClick);
         return square;
     }
 
-    private BooleanBinding createBindingForPieceAtPosition(int n, int row, int col) {
-        return new BooleanBinding() {
-            {
-                super.bind(state.positionProperty(n));
-            }
-            @Override
-            protected boolean computeValue() {
-                var pos = state.positionProperty(n).get();
-                return pos.row() == row && pos.col() == col;
+    private Optional<Integer> getTileFromClick(int row, int col) {
+        var position = new Position(row, col);
+        for (var tile = 0; tile < 5; tile++) {
+            if (state.overlapOf(tile).contains(position)) {
+                return Optional.of(tile);
             }
-        };
-    }
-
-    private Optional<Direction> getDirectionFromClick(int row, int col) {
-        var blockPos = state.getPosition(PuzzleState.BLOCK);
-        Direction direction = null;
-        try {
-            direction = Direction.of(row - blockPos.row(), col - blockPos.col());
-        } catch (IllegalArgumentException e) {
         }
-        return Optional.ofNullable(direction);
+        return Optional.empty();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package puzzle.gui;
+
+import org.tinylog.Logger;
+import puzzle.model.PuzzleState;
+import puzzle.solver.Node;
+import puzzle.solver.Solver;
+import puzzle.util.VirtualThreads;
+
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Solves snapshots of the game in the background, so that the thread of the
+ * user interface never waits for a search.
+ *
+ * <p>Only the most recent request matters: a new request, or a call to
+ * {@link #cancel()}, makes every earlier one stale. Stale searches are
+ * interrupted, which makes the solver give up at its next expansion, and
+ * their results are dropped, so a callback is only ever invoked with the
+ * solution of the latest request. Callbacks run on the executor given to
+ * the constructor, which is {@code Platform::runLater} in the game; the
+ * check for staleness is made there as well, so a result that was already
+ * on its way when the player moved is dropped too. A search that fails with
+ * an exception is logged and reported to the failure callback of its
+ * request, if the request is still the latest.
+ */
+class HintEngine implements AutoCloseable {
+
+    private final Supplier<? extends Solver> solvers;
+
+    private final Executor callbackExecutor;
+
+    private final ExecutorService executor = VirtualThreads.newExecutor();
+
+    /**
+     * The number of the latest request, only accessed from the callback
+     * thread.
+     */
+    private long generation;
+
+    private Future<?> pending;
+
+    /**
+     * Creates an engine.
+     *
+     * @param solvers creates the solver of each request
+     * @param callbackExecutor runs the callbacks
+     */
+    HintEngine(Supplier<? extends Solver> solvers, Executor callbackExecutor) {
+        this.solvers = solvers;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Starts solving the state specified, cancelling the previous request.
+     * A failure of the search is only logged. Must be called from the
+     * callback thread.
+     *
+     * @param state the state to solve
+     * @param callback receives the codes of the moves of a shortest path to a
+     *                 goal state, or an empty {@code Optional} if no goal
+     *                 state is reachable
+     */
+    void request(PuzzleState state, Consumer<Optional<int[]>> callback) {
+        request(state, callback, e -> {
+        });
+    }
+
+    /**
+     * Starts solving the state specified, cancelling the previous request.
+     * The state is copied, so it may change while the search runs. Must be
+     * called from the callback thread.
+     *
+     * @param state the state to solve
+     * @param callback receives the codes of the moves of a shortest path to a
+     *                 goal state, or an empty {@code Optional} if no goal
+     *                 state is reachable
+     * @param failureCallback receives the exception the search failed with
+     */
+    void request(PuzzleState state, Consumer<Optional<int[]>> callback,
+                 Consumer<? super RuntimeException> failureCallback) {
+        cancel();
+        var snapshot = new PuzzleState(state.getPacked());
+        var request = generation;
+        pending = executor.submit(() -> {
+            Optional<int[]> solution;
+            try {
+                solution = solvers.get().search(snapshot).map(Node::getMoves);
+            } catch (RuntimeException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // a stale search that gave up
+                    return;
+                }
+                Logger.error(e, "Search for a solution failed");
+                report(request, () -> failureCallback.accept(e));
+                return;
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                report(request, () -> callback.accept(solution));
+            }
+        });
+    }
+
+    /**
+     * Runs the action on the callback thread unless the request has become
+     * stale by then.
+     */
+    private void report(long request, Runnable action) {
+        callbackExecutor.execute(() -> {
+            if (request == generation) {
+                // the task may not be done yet, but the request is
+                pending = null;
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Cancels the request in progress, if any. Must be called from the
+     * callback thread.
+     */
+    void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+    }
+
+    /**
+     * {@return whether a request is in progress} Must be called from the
+     * callback thread.
+     */
+    boolean isBusy() {
+        return pending != null && !pending.isDone();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,95 @@
+package puzzle.journal;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The binary file format of a move journal. A file consists of a fixed-size
+ * header followed by the moves of the session, one byte per move holding its
+ * move code, see {@link PackedState#moveOf(int, puzzle.model.Direction)}.
+ *
+ * <p>The header holds, in big-endian order:
+ * <ul>
+ *     <li>the magic number {@code "PZMJ"},</li>
+ *     <li>the format version,</li>
+ *     <li>the height and the width of the board,</li>
+ *     <li>the number of pieces,</li>
+ *     <li>the packed start state,</li>
+ *     <li>the time the session started in milliseconds since the epoch,</li>
+ * </ul>
+ * padded with zeros to {@value #HEADER_SIZE} bytes. The moves are appended
+ * as they are made, so the length of the file is the only record of their
+ * number and a journal that was not closed properly is still complete up to
+ * its last move.
+ */
+final class JournalFile {
+
+    static final int MAGIC = 0x505A4D4A; // "PZMJ"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * The header of a journal file.
+     *
+     * @param start the packed start state
+     * @param startMillis the time the session started in milliseconds since
+     *                    the epoch
+     */
+    record Header(long start, long startMillis) {
+    }
+
+    private JournalFile() {
+    }
+
+    /**
+     * {@return the header specified, ready to be written}
+     */
+    static ByteBuffer encode(Header header) {
+        var buffer = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(PuzzleState.BOARD_HEIGHT)
+                .putInt(PuzzleState.BOARD_WIDTH)
+                .putInt(PackedState.PIECES)
+                .putLong(header.start())
+                .putLong(header.startMillis());
+        return buffer.clear();
+    }
+
+    /**
+     * {@return the header at the position of the buffer specified} The
+     * position is advanced past the header.
+     *
+     * @throws JournalFormatException if the buffer does not start with the
+     * header of a journal of this version and of this board
+     */
+    static Header decode(ByteBuffer buffer, Object source) throws JournalFormatException {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new JournalFormatException("Truncated header: " + source);
+        }
+        var offset = buffer.position();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        check(buffer.getInt() == MAGIC, "Not a move journal", source);
+        check(buffer.getInt() == VERSION, "Unsupported version", source);
+        check(buffer.getInt() == PuzzleState.BOARD_HEIGHT, "Board height differs", source);
+        check(buffer.getInt() == PuzzleState.BOARD_WIDTH, "Board width differs", source);
+        check(buffer.getInt() == PackedState.PIECES, "Number of pieces differs", source);
+        var start = buffer.getLong();
+        check(PackedState.isValid(start), "Invalid start state", source);
+        var header = new Header(start, buffer.getLong());
+        buffer.position(offset + HEADER_SIZE);
+        return header;
+    }
+
+    private static void check(boolean condition, String message, Object source) throws JournalFormatException {
+        if (!condition) {
+            throw new JournalFormatException(message + ": " + source);
+        }
+    }
+
+}
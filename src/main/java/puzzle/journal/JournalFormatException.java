@@ -0,0 +1,20 @@
+package puzzle.journal;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a file is not a move journal of this version and board, or
+ * when it records a move that is not legal in the state it was made.
+ */
+public class JournalFormatException extends IOException {
+
+    /**
+     * Creates an exception with the detail message specified.
+     *
+     * @param message the detail message
+     */
+    public JournalFormatException(String message) {
+        super(message);
+    }
+
+}
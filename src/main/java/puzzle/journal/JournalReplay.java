@@ -0,0 +1,145 @@
+package puzzle.journal;
+
+import puzzle.model.PackedState;
+import puzzle.util.LongHashSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays move journals to compute the statistics of their sessions. The
+ * moves are read straight from a read-only mapping of the file and applied
+ * to the packed state, so no {@link puzzle.model.PuzzleState} or property is
+ * involved and a replay runs at millions of moves per second. Every move is
+ * checked to be legal in the state it was made.
+ */
+public final class JournalReplay {
+
+    // the largest number of moves mapped at once
+    private static final long CHUNK_SIZE = 1L << 30;
+
+    private JournalReplay() {
+    }
+
+    /**
+     * {@return the statistics of the session recorded in the journal file
+     * specified}
+     *
+     * @param path the path of a journal file
+     * @throws JournalFormatException if the file is not a move journal of
+     * this version and board, or it records an illegal move
+     * @throws IOException if an I/O error occurs
+     */
+    public static SessionStatistics replay(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size < JournalFile.HEADER_SIZE) {
+                throw new JournalFormatException("Truncated header: " + path);
+            }
+            var header = JournalFile.decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, JournalFile.HEADER_SIZE), path);
+            var session = new Session(header);
+            for (var position = (long) JournalFile.HEADER_SIZE; position < size; position += CHUNK_SIZE) {
+                // the mappings stay valid after the channel is closed, they are
+                // released once unreachable
+                session.replay(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position)), path);
+            }
+            return session.statistics();
+        }
+    }
+
+    /**
+     * {@return the statistics of the session recorded in the buffer
+     * specified} The buffer holds a whole journal file from its position to
+     * its limit.
+     *
+     * @param buffer the contents of a journal file
+     * @throws JournalFormatException if the buffer does not hold a move
+     * journal of this version and board, or it records an illegal move
+     */
+    public static SessionStatistics replay(ByteBuffer buffer) throws JournalFormatException {
+        var journal = buffer.duplicate();
+        var session = new Session(JournalFile.decode(journal, "buffer"));
+        session.replay(journal.slice(), "buffer");
+        return session.statistics();
+    }
+
+    public static void main(String[] args) throws IOException {
+        var moves = 0L;
+        var startTime = System.nanoTime();
+        System.out.println("file\tmoves\tdistinct\tundos\tsolved after");
+        for (var arg : args) {
+            var statistics = replay(Path.of(arg));
+            moves += statistics.moveCount();
+            System.out.printf("%s\t%d\t%d\t%d\t%d%n", arg, statistics.moveCount(),
+                    statistics.distinctStateCount(), statistics.undoCount(), statistics.solvedAfter());
+        }
+        var seconds = (System.nanoTime() - startTime) / 1e9;
+        System.out.printf("%d moves in %.3f s, %.0f moves/s%n", moves, seconds, moves / seconds);
+    }
+
+    /**
+     * The state of a replay in progress, carried over from one mapped chunk
+     * of the file to the next.
+     */
+    private static class Session {
+
+        private final JournalFile.Header header;
+
+        private final LongHashSet visited = new LongHashSet();
+
+        private long state;
+
+        private int lastMove = -1;
+
+        private long moveCount;
+
+        private long undoCount;
+
+        private long solvedAfter = -1;
+
+        Session(JournalFile.Header header) {
+            this.header = header;
+            state = header.start();
+            visited.add(state);
+            if (PackedState.isGoal(state)) {
+                solvedAfter = 0;
+            }
+        }
+
+        void replay(ByteBuffer moves, Object source) throws JournalFormatException {
+            var limit = moves.limit();
+            for (var i = moves.position(); i < limit; i++) {
+                var move = moves.get(i);
+                if (move < 0 || move >= PackedState.MOVES) {
+                    throw new JournalFormatException("Invalid move code " + move + " after " + moveCount + " moves: " + source);
+                }
+                var tile = PackedState.tileOf(move);
+                var direction = PackedState.directionOf(move);
+                if (!PackedState.canMove(state, tile, direction)) {
+                    throw new JournalFormatException("Illegal move after " + moveCount + " moves: " + source);
+                }
+                state = PackedState.move(state, tile, direction);
+                moveCount++;
+                // the opposite direction differs in the second bit of the ordinal
+                if (lastMove == (move ^ 2)) {
+                    undoCount++;
+                }
+                lastMove = move;
+                visited.add(state);
+                if (solvedAfter < 0 && PackedState.isGoal(state)) {
+                    solvedAfter = moveCount;
+                }
+            }
+        }
+
+        SessionStatistics statistics() {
+            return new SessionStatistics(header.start(), state, header.startMillis(),
+                    moveCount, visited.size(), undoCount, solvedAfter);
+        }
+
+    }
+
+}
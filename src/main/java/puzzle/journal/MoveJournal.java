@@ -0,0 +1,120 @@
+package puzzle.journal;
+
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only journal of the moves of a session. The journal starts with
+ * a header holding the start state, then every move is written as a single
+ * byte as soon as it is made. See {@link JournalFile} for the format and
+ * {@link JournalReplay} for reading it back.
+ *
+ * <p>The journal follows the state of the session, so it refuses moves that
+ * are not legal and every journal it writes can be replayed.
+ */
+public class MoveJournal implements AutoCloseable {
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(1);
+
+    private long state;
+
+    private long moveCount;
+
+    private MoveJournal(FileChannel channel, long start) {
+        this.channel = channel;
+        this.state = start;
+    }
+
+    /**
+     * Creates a journal of a session started at the current time, replacing
+     * the file specified if it exists.
+     *
+     * @param path the path of the journal file
+     * @param start the packed start state
+     * @return the journal
+     * @throws IllegalArgumentException if {@code start} is not a valid state
+     * @throws IOException if an I/O error occurs
+     */
+    public static MoveJournal create(Path path, long start) throws IOException {
+        if (!PackedState.isValid(start)) {
+            throw new IllegalArgumentException();
+        }
+        var channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            var header = JournalFile.encode(new JournalFile.Header(start, System.currentTimeMillis()));
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            return new MoveJournal(channel, start);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends the move of the piece to the direction specified.
+     *
+     * @param tile the index of a piece
+     * @param direction a direction
+     * @throws IllegalArgumentException if the move is not legal in the
+     * current state
+     * @throws IOException if an I/O error occurs
+     */
+    public void append(int tile, Direction direction) throws IOException {
+        if (tile < 0 || tile >= PackedState.PIECES || !PackedState.canMove(state, tile, direction)) {
+            throw new IllegalArgumentException();
+        }
+        buffer.clear();
+        buffer.put((byte) PackedState.moveOf(tile, direction)).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        state = PackedState.move(state, tile, direction);
+        moveCount++;
+    }
+
+    /**
+     * Appends the move specified.
+     *
+     * @param move a move code
+     * @throws IllegalArgumentException if the move is not legal in the
+     * current state
+     * @throws IOException if an I/O error occurs
+     */
+    public void append(int move) throws IOException {
+        if (move < 0 || move >= PackedState.MOVES) {
+            throw new IllegalArgumentException();
+        }
+        append(PackedState.tileOf(move), PackedState.directionOf(move));
+    }
+
+    /**
+     * {@return the packed state after the moves appended so far}
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * {@return the number of moves appended so far}
+     */
+    public long getMoveCount() {
+        return moveCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
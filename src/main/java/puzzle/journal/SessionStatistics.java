@@ -0,0 +1,32 @@
+package puzzle.journal;
+
+/**
+ * Statistics of a session computed by replaying its move journal.
+ *
+ * @param start the packed start state
+ * @param end the packed state after the last move
+ * @param startMillis the time the session started in milliseconds since the
+ *                    epoch
+ * @param moveCount the number of moves
+ * @param distinctStateCount the number of different states visited,
+ *                           counting the start state
+ * @param undoCount the number of moves that undid the move right before them
+ * @param solvedAfter the number of moves after which a goal state was first
+ *                    reached, or {@code -1} if no goal state was reached
+ */
+public record SessionStatistics(long start,
+                                long end,
+                                long startMillis,
+                                long moveCount,
+                                long distinctStateCount,
+                                long undoCount,
+                                long solvedAfter) {
+
+    /**
+     * {@return whether a goal state was reached during the session}
+     */
+    public boolean isSolved() {
+        return solvedAfter >= 0;
+    }
+
+}
@@ -0,0 +1,358 @@
+package puzzle.model;
+
+import java.util.stream.IntStream;
+
+/**
+ * A {@link PuzzleDefinition} compiled into lookup tables, so that a puzzle
+ * read from a definition is searched as fast as the hand-coded one.
+ *
+ * <p>States are packed like in {@link PackedState}: the cell index of each
+ * piece ({@code row * width + col}) takes {@link #cellBits()} bits, piece
+ * {@code n} occupying the {@code n}-th group of bits. The occupancy of a state
+ * is a {@code long} with a bit set for every covered cell, so the board may
+ * have up to 64 cells. For every move and position the cells that have to be
+ * free are precomputed, a move that would take a cell of the piece off the
+ * board requiring every cell, so legality is a single AND, as in
+ * {@link MoveGenerator}. Move codes are {@code piece * 4 + direction.ordinal()}.
+ *
+ * <p>Compiling the {@linkplain PuzzleDefinition#defaultDefinition() default
+ * definition} yields the same packed states, move codes and legal moves as
+ * {@link PackedState} does for the states that {@linkplain #fitsOnBoard(long)
+ * fit on the board}. A piece hanging over the edge may only move to where it
+ * lies entirely on the board here.
+ */
+public final class CompiledPuzzle {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final PuzzleDefinition definition;
+
+    private final int height;
+
+    private final int width;
+
+    private final int pieces;
+
+    private final int cellBits;
+
+    private final long cellMask;
+
+    private final long start;
+
+    /**
+     * The cells covered by each piece, indexed by piece and cell index.
+     */
+    private final long[][] pieceMasks;
+
+    /**
+     * The cells that have to be free for a move, indexed by move code and
+     * cell index.
+     */
+    private final long[][] requiredFree;
+
+    /**
+     * The change of the cell index of a piece moved to each direction.
+     */
+    private final int[] deltas = new int[DIRECTIONS.length];
+
+    private final int goalReference;
+
+    /**
+     * The pieces whose position is part of the goal, the reference piece
+     * excluded.
+     */
+    private final int[] goalPieces;
+
+    /**
+     * The goal cells of the pieces in {@code goalPieces}, indexed by the cell
+     * of the reference piece, or {@code null} where the reference piece
+     * cannot be in a goal state.
+     */
+    private final int[][] goalCells;
+
+    private CompiledPuzzle(PuzzleDefinition definition) {
+        this.definition = definition;
+        height = definition.height();
+        width = definition.width();
+        pieces = definition.pieces().size();
+        var cells = height * width;
+        if (cells > Long.SIZE) {
+            throw new IllegalArgumentException("The board has more than " + Long.SIZE + " cells");
+        }
+        cellBits = Math.max(1, Integer.SIZE - Integer.numberOfLeadingZeros(cells - 1));
+        if (pieces * cellBits >= Long.SIZE) {
+            throw new IllegalArgumentException("A state does not fit in " + (Long.SIZE - 1) + " bits");
+        }
+        cellMask = (1L << cellBits) - 1;
+        for (var direction : DIRECTIONS) {
+            deltas[direction.ordinal()] = direction.getRowChange() * width + direction.getColChange();
+        }
+        pieceMasks = new long[pieces][cells];
+        requiredFree = new long[pieces * DIRECTIONS.length][cells];
+        for (var piece = 0; piece < pieces; piece++) {
+            for (var cell = 0; cell < cells; cell++) {
+                pieceMasks[piece][cell] = mask(piece, cell / width, cell % width);
+            }
+            for (var direction : DIRECTIONS) {
+                for (var cell = 0; cell < cells; cell++) {
+                    requiredFree[piece * DIRECTIONS.length + direction.ordinal()][cell] =
+                            requiredFree(piece, direction, cell / width, cell % width);
+                }
+            }
+        }
+        var state = 0L;
+        for (var piece = 0; piece < pieces; piece++) {
+            var position = definition.start().get(piece);
+            state |= (long) (position.row() * width + position.col()) << (piece * cellBits);
+        }
+        start = state;
+        var goal = definition.goal();
+        goalReference = goal.reference();
+        goalPieces = IntStream.range(0, pieces)
+                .filter(piece -> piece != goalReference && goal.offsets().get(piece) != null)
+                .toArray();
+        goalCells = new int[cells][];
+        for (var cell = 0; cell < cells; cell++) {
+            var targets = new int[goalPieces.length];
+            var valid = goal.position() == null || goal.position().row() * width + goal.position().col() == cell;
+            for (var k = 0; k < goalPieces.length && valid; k++) {
+                var offset = goal.offsets().get(goalPieces[k]);
+                var row = cell / width + offset.row();
+                var col = cell % width + offset.col();
+                valid = isOnBoard(row, col);
+                targets[k] = row * width + col;
+            }
+            goalCells[cell] = valid ? targets : null;
+        }
+    }
+
+    /**
+     * {@return the compiled form of the definition specified}
+     *
+     * @param definition a puzzle definition
+     * @throws IllegalArgumentException if the board has more than 64 cells or
+     * a packed state would not fit in 63 bits
+     */
+    public static CompiledPuzzle compile(PuzzleDefinition definition) {
+        return new CompiledPuzzle(definition);
+    }
+
+    /**
+     * {@return the definition the puzzle was compiled from}
+     */
+    public PuzzleDefinition definition() {
+        return definition;
+    }
+
+    /**
+     * {@return the number of pieces}
+     */
+    public int pieces() {
+        return pieces;
+    }
+
+    /**
+     * {@return the number of distinct moves, that is, pieces times
+     * directions}
+     */
+    public int moves() {
+        return pieces * DIRECTIONS.length;
+    }
+
+    /**
+     * {@return the number of bits used to store the position of a piece}
+     */
+    public int cellBits() {
+        return cellBits;
+    }
+
+    /**
+     * {@return the packed initial state}
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * {@return the cell index of the piece specified}
+     *
+     * @param state a packed state
+     * @param piece the index of a piece
+     */
+    public int cell(long state, int piece) {
+        return (int) ((state >>> (piece * cellBits)) & cellMask);
+    }
+
+    /**
+     * {@return the cells covered by the pieces of the packed state}
+     *
+     * @param state a packed state
+     */
+    public long occupancy(long state) {
+        var occupancy = 0L;
+        for (var piece = 0; piece < pieces; piece++) {
+            occupancy |= pieceMasks[piece][cell(state, piece)];
+        }
+        return occupancy;
+    }
+
+    /**
+     * {@return whether the move specified is legal}
+     *
+     * @param state a packed state
+     * @param occupancy the occupancy of the state
+     * @param move a move code
+     */
+    public boolean canMove(long state, long occupancy, int move) {
+        return (occupancy & requiredFree[move][cell(state, move >> 2)]) == 0;
+    }
+
+    /**
+     * Writes the codes of the legal moves of the packed state into the array
+     * specified, in increasing order, without allocating any objects.
+     *
+     * @param state a packed state
+     * @param moves an array of at least {@link #moves()} elements
+     * @return the number of legal moves written
+     */
+    public int successors(long state, int[] moves) {
+        var occupancy = occupancy(state);
+        var count = 0;
+        for (var move = 0; move < requiredFree.length; move++) {
+            if (canMove(state, occupancy, move)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return whether every cell of every piece of the packed state is on
+     * the board} Legal moves never take a cell off the board, so every state
+     * reachable from such a state fits on the board too, and every move
+     * between them can be undone. A piece of a state that does not fit may
+     * move onto the board but never back.
+     *
+     * @param state a packed state
+     */
+    public boolean fitsOnBoard(long state) {
+        for (var piece = 0; piece < pieces; piece++) {
+            if (Long.bitCount(pieceMasks[piece][cell(state, piece)]) != definition.pieces().get(piece).cells().size()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the codes of the moves that lead to the packed state specified
+     * from some other state into the array specified, in increasing order.
+     * The state before move {@code m} is {@code move(state, m ^ 2)}, the
+     * opposite direction differing in the second bit of the ordinal. Unless
+     * the state fits on the board, these are not always the reverse of the
+     * legal moves of the state.
+     *
+     * @param state a packed state
+     * @param moves an array of at least {@link #moves()} elements
+     * @return the number of moves written
+     */
+    public int predecessors(long state, int[] moves) {
+        var occupancy = occupancy(state);
+        var count = 0;
+        for (var move = 0; move < requiredFree.length; move++) {
+            var piece = move >> 2;
+            var direction = DIRECTIONS[move & 3];
+            var cell = cell(state, piece);
+            var row = cell / width - direction.getRowChange();
+            var col = cell % width - direction.getColChange();
+            if (!isOnBoard(row, col)) {
+                continue;
+            }
+            // the piece must not overlap the others before the move
+            var others = occupancy & ~pieceMasks[piece][cell];
+            var parentMask = pieceMasks[piece][row * width + col];
+            if ((others & parentMask) == 0 && canMove(move(state, move ^ 2), others | parentMask, move)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return the packed state after the move specified} The legality of
+     * the move is not checked.
+     *
+     * @param state a packed state
+     * @param move a move code
+     */
+    public long move(long state, int move) {
+        var shift = (move >> 2) * cellBits;
+        return state + ((long) deltas[move & 3] << shift);
+    }
+
+    /**
+     * {@return whether the packed state satisfies the goal}
+     *
+     * @param state a packed state
+     */
+    public boolean isGoal(long state) {
+        var targets = goalCells[cell(state, goalReference)];
+        if (targets == null) {
+            return false;
+        }
+        for (var k = 0; k < goalPieces.length; k++) {
+            if (cell(state, goalPieces[k]) != targets[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return the string representation of the packed state} The format is
+     * the same as that of {@link PuzzleState#toString()}.
+     *
+     * @param state a packed state
+     */
+    public String toString(long state) {
+        var sb = new StringBuilder("[");
+        for (var piece = 0; piece < pieces; piece++) {
+            if (piece > 0) {
+                sb.append(',');
+            }
+            var cell = cell(state, piece);
+            sb.append(new Position(cell / width, cell % width));
+        }
+        return sb.append(']').toString();
+    }
+
+    private long mask(int piece, int row, int col) {
+        var mask = 0L;
+        for (var cell : definition.pieces().get(piece).cells()) {
+            if (isOnBoard(row + cell.row(), col + cell.col())) {
+                mask |= 1L << ((row + cell.row()) * width + col + cell.col());
+            }
+        }
+        return mask;
+    }
+
+    private long requiredFree(int piece, Direction direction, int row, int col) {
+        var targetRow = row + direction.getRowChange();
+        var targetCol = col + direction.getColChange();
+        if (!isOnBoard(targetRow, targetCol)) {
+            return -1L;
+        }
+        for (var cell : definition.pieces().get(piece).cells()) {
+            if (!isOnBoard(targetRow + cell.row(), targetCol + cell.col())) {
+                return -1L;
+            }
+        }
+        // the cells the piece covers after the move but not before
+        return mask(piece, targetRow, targetCol) & ~mask(piece, row, col);
+    }
+
+    private boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < height && col >= 0 && col < width;
+    }
+
+}
@@ -33,6 +33,13 @@ public enum Direction {
         return colChange;
     }
 
+    /**
+     * {@return the direction that points the other way}
+     */
+    public Direction opposite() {
+        return of(-rowChange, -colChange);
+    }
+
     /**
      * {@return the direction that corresponds to the coordinate changes
      * specified}
@@ -0,0 +1,170 @@
+package puzzle.model;
+
+import static puzzle.model.PuzzleState.BOARD_HEIGHT;
+import static puzzle.model.PuzzleState.BOARD_WIDTH;
+
+/**
+ * Legality of moves answered with precomputed bitmasks. The occupancy of a
+ * packed state is an {@code int} whose bit {@code row * BOARD_WIDTH + col} is
+ * set if a piece covers the cell, plus the {@link #WALL} bit that is always
+ * set.
+ *
+ * <p>For every piece, direction and position a mask of the cells that have
+ * to be free is precomputed. Moves that are blocked by the edges of the board
+ * have the {@link #WALL} bit in their mask, so checking a move is a single
+ * AND of the occupancy and the mask. The result is exactly that of
+ * {@link PackedState#canMove(long, int, Direction)}.
+ */
+public final class MoveGenerator {
+
+    /**
+     * The bit of the occupancy that stands for the edges of the board.
+     */
+    public static final int WALL = 1 << PackedState.CELLS;
+
+    private static final int POSITIONS = 1 << PackedState.CELL_BITS;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The cells covered by each piece, indexed by piece and cell index.
+     */
+    private static final int[][] PIECE_MASKS = new int[PackedState.PIECES][POSITIONS];
+
+    /**
+     * The cells that have to be free for a move, indexed by move code and the
+     * cell index of the piece.
+     */
+    private static final int[][] REQUIRED_FREE = new int[PackedState.MOVES][POSITIONS];
+
+    static {
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            for (var cell = 0; cell < PackedState.CELLS; cell++) {
+                PIECE_MASKS[tile][cell] = mask(tile, cell);
+            }
+            for (var direction : DIRECTIONS) {
+                var required = REQUIRED_FREE[PackedState.moveOf(tile, direction)];
+                for (var cell = 0; cell < POSITIONS; cell++) {
+                    required[cell] = requiredFree(tile, direction, cell);
+                }
+            }
+        }
+    }
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * {@return the occupancy of the packed state}
+     *
+     * @param state a packed state
+     */
+    public static int occupancy(long state) {
+        var occupancy = WALL;
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            occupancy |= PIECE_MASKS[tile][PackedState.cell(state, tile)];
+        }
+        return occupancy;
+    }
+
+    /**
+     * {@return the cells covered by the piece placed on the cell specified}
+     *
+     * @param tile the index of a piece
+     * @param cell a cell index
+     */
+    public static int pieceMask(int tile, int cell) {
+        return PIECE_MASKS[tile][cell];
+    }
+
+    /**
+     * {@return whether the move specified is legal}
+     *
+     * @param state a packed state
+     * @param occupancy the occupancy of the state
+     * @param move a move code
+     */
+    public static boolean canMove(long state, int occupancy, int move) {
+        return (occupancy & REQUIRED_FREE[move][PackedState.cell(state, PackedState.tileOf(move))]) == 0;
+    }
+
+    /**
+     * {@return whether the piece can be moved to the direction specified}
+     *
+     * @param state a packed state
+     * @param occupancy the occupancy of the state
+     * @param tile the index of a piece
+     * @param direction a direction
+     */
+    public static boolean canMove(long state, int occupancy, int tile, Direction direction) {
+        return (occupancy & REQUIRED_FREE[PackedState.moveOf(tile, direction)][PackedState.cell(state, tile)]) == 0;
+    }
+
+    /**
+     * Writes the codes of the legal moves of the packed state into the array
+     * specified, in increasing order. No objects are allocated, so the same
+     * array can be reused for every state of a search.
+     *
+     * @param state a packed state
+     * @param moves an array of at least {@link PackedState#MOVES} elements
+     * @return the number of legal moves written
+     */
+    public static int successors(long state, int[] moves) {
+        var occupancy = occupancy(state);
+        var count = 0;
+        for (var move = 0; move < PackedState.MOVES; move++) {
+            if (canMove(state, occupancy, move)) {
+                moves[count++] = move;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * {@return the occupancy after moving the piece to the direction
+     * specified} The legality of the move is not checked.
+     *
+     * @param state a packed state
+     * @param occupancy the occupancy of the state
+     * @param tile the index of a piece
+     * @param direction a direction
+     */
+    public static int move(long state, int occupancy, int tile, Direction direction) {
+        var cell = PackedState.cell(state, tile);
+        var target = cell + direction.getRowChange() * BOARD_WIDTH + direction.getColChange();
+        return occupancy ^ PIECE_MASKS[tile][cell] ^ PIECE_MASKS[tile][target];
+    }
+
+    private static int mask(int tile, int cell) {
+        var mask = 0;
+        for (var row = 0; row < BOARD_HEIGHT; row++) {
+            for (var col = 0; col < BOARD_WIDTH; col++) {
+                if (PackedState.covers(PackedState.withCell(0L, tile, cell), tile, row, col)) {
+                    mask |= 1 << (row * BOARD_WIDTH + col);
+                }
+            }
+        }
+        return mask;
+    }
+
+    private static int requiredFree(int tile, Direction direction, int cell) {
+        if (cell >= PackedState.CELLS) {
+            return WALL;
+        }
+        var row = cell / BOARD_WIDTH;
+        var col = cell % BOARD_WIDTH;
+        var blocked = switch (direction) {
+            case UP -> row == 0;
+            case RIGHT -> col >= BOARD_WIDTH - 2;
+            case DOWN -> row >= BOARD_HEIGHT - 2;
+            case LEFT -> col == 0;
+        };
+        if (blocked) {
+            return WALL;
+        }
+        // the cells the piece covers after the move but not before
+        var target = cell + direction.getRowChange() * BOARD_WIDTH + direction.getColChange();
+        return PIECE_MASKS[tile][target] & ~PIECE_MASKS[tile][cell];
+    }
+
+}
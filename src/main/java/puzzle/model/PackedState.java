@@ -0,0 +1,433 @@
+package puzzle.model;
+
+import java.util.Arrays;
+
+import static puzzle.model.PuzzleState.BOARD_HEIGHT;
+import static puzzle.model.PuzzleState.BOARD_WIDTH;
+import static puzzle.model.PuzzleState.BOTTOMLEFT;
+import static puzzle.model.PuzzleState.BOTTOMRIGHT;
+import static puzzle.model.PuzzleState.SQUARE;
+import static puzzle.model.PuzzleState.TOPLEFT;
+import static puzzle.model.PuzzleState.TOPRIGHT;
+
+/**
+ * Operations on the compact representation of a puzzle state. A packed state
+ * is a {@code long} that stores the position of each piece as a cell index
+ * ({@code row * BOARD_WIDTH + col}) in {@value #CELL_BITS} bits, the piece
+ * with index {@code n} occupying bits {@code 5n} to {@code 5n + 4}.
+ *
+ * <p>Every operation works on the packed value directly, so searching the
+ * state space does not allocate any objects.
+ */
+public final class PackedState {
+
+    /**
+     * The number of pieces.
+     */
+    public static final int PIECES = 5;
+
+    /**
+     * The number of cells on the board.
+     */
+    public static final int CELLS = BOARD_HEIGHT * BOARD_WIDTH;
+
+    /**
+     * The number of bits used to store the position of a piece.
+     */
+    public static final int CELL_BITS = 5;
+
+    /**
+     * The number of distinct moves, that is, pieces times directions.
+     */
+    public static final int MOVES = PIECES * 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    /**
+     * The cells of each piece within its 2x2 bounding box, bit {@code 2 * dr + dc}
+     * standing for the cell at row offset {@code dr} and column offset {@code dc}.
+     */
+    private static final int[] SHAPES = {
+            0b1111, // SQUARE
+            0b0111, // TOPLEFT
+            0b1011, // TOPRIGHT
+            0b1101, // BOTTOMLEFT
+            0b1110  // BOTTOMRIGHT
+    };
+
+    /**
+     * The cells, relative to the position of the piece, that have to be free
+     * for a piece to move, indexed by piece and direction ordinal. These are
+     * the cells of the shape shifted to the direction that the piece does not
+     * cover yet, stored as row and column offset pairs.
+     */
+    private static final int[][][] REQUIRED_FREE = new int[PIECES][Direction.values().length][];
+
+    static {
+        for (var tile = 0; tile < PIECES; tile++) {
+            for (var direction : Direction.values()) {
+                var cells = new int[4];
+                var n = 0;
+                for (var dr = 0; dr <= 1; dr++) {
+                    for (var dc = 0; dc <= 1; dc++) {
+                        var r = dr + direction.getRowChange();
+                        var c = dc + direction.getColChange();
+                        if (inShape(tile, dr, dc) && !inShape(tile, r, c)) {
+                            cells[n++] = r;
+                            cells[n++] = c;
+                        }
+                    }
+                }
+                REQUIRED_FREE[tile][direction.ordinal()] = cells;
+            }
+        }
+    }
+
+    /**
+     * The goal state of each cell of the square, or {@code -1} where the
+     * square cannot be surrounded. A state is a goal state if and only if it
+     * is equal to the goal state of the cell of its square.
+     */
+    private static final long[] GOAL_BY_SQUARE = new long[1 << CELL_BITS];
+
+    static {
+        Arrays.fill(GOAL_BY_SQUARE, -1L);
+        for (var goal : goals()) {
+            GOAL_BY_SQUARE[cell(goal, SQUARE)] = goal;
+        }
+    }
+
+    private PackedState() {
+    }
+
+    /**
+     * {@return the packed state of the positions specified}
+     *
+     * @param positions the positions of the five pieces
+     * @throws IllegalArgumentException if not exactly five positions are
+     * specified or any of them is not on the board
+     */
+    public static long of(Position... positions) {
+        if (positions.length != PIECES) {
+            throw new IllegalArgumentException();
+        }
+        var state = 0L;
+        for (var tile = 0; tile < PIECES; tile++) {
+            var position = positions[tile];
+            if (!isOnBoard(position.row(), position.col())) {
+                throw new IllegalArgumentException();
+            }
+            state = withCell(state, tile, position.row() * BOARD_WIDTH + position.col());
+        }
+        return state;
+    }
+
+    /**
+     * {@return the cell index of the piece specified}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     */
+    public static int cell(long state, int tile) {
+        return (int) ((state >>> (tile * CELL_BITS)) & CELL_MASK);
+    }
+
+    /**
+     * {@return the row of the piece specified}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     */
+    public static int row(long state, int tile) {
+        return cell(state, tile) / BOARD_WIDTH;
+    }
+
+    /**
+     * {@return the column of the piece specified}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     */
+    public static int col(long state, int tile) {
+        return cell(state, tile) % BOARD_WIDTH;
+    }
+
+    /**
+     * {@return the position of the piece specified}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     */
+    public static Position position(long state, int tile) {
+        return new Position(row(state, tile), col(state, tile));
+    }
+
+    /**
+     * {@return the packed state in which the piece specified is placed on the
+     * cell given and every other piece is left in place}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     * @param cell a cell index
+     */
+    public static long withCell(long state, int tile, int cell) {
+        var shift = tile * CELL_BITS;
+        return (state & ~(CELL_MASK << shift)) | ((long) cell << shift);
+    }
+
+    /**
+     * {@return whether the piece specified covers the cell given}
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    public static boolean covers(long state, int tile, int row, int col) {
+        return inShape(tile, row - row(state, tile), col - col(state, tile));
+    }
+
+    /**
+     * {@return whether no piece covers the cell specified} Cells outside the
+     * board are considered free, the edges of the board are taken care of by
+     * {@link #canMove(long, int, Direction)}. Note that the position of the
+     * bottom right corner-tile is the empty corner of its bounding box, so
+     * it is free unless another piece covers it.
+     *
+     * @param state a packed state
+     * @param row the row of the cell
+     * @param col the column of the cell
+     */
+    public static boolean isFree(long state, int row, int col) {
+        if (!isOnBoard(row, col)) {
+            return true;
+        }
+        for (var tile = 0; tile < PIECES; tile++) {
+            if (covers(state, tile, row, col)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether every piece is on the board and no two pieces cover
+     * the same cell}
+     *
+     * @param state a packed state
+     */
+    public static boolean isValid(long state) {
+        if ((state >>> (PIECES * CELL_BITS)) != 0) {
+            return false;
+        }
+        var occupied = 0L;
+        for (var tile = 0; tile < PIECES; tile++) {
+            var cell = cell(state, tile);
+            if (cell >= CELLS) {
+                return false;
+            }
+            var row = cell / BOARD_WIDTH;
+            var col = cell % BOARD_WIDTH;
+            for (var dr = 0; dr <= 1; dr++) {
+                for (var dc = 0; dc <= 1; dc++) {
+                    if (inShape(tile, dr, dc) && isOnBoard(row + dr, col + dc)) {
+                        var bit = 1L << ((row + dr) * BOARD_WIDTH + col + dc);
+                        if ((occupied & bit) != 0) {
+                            return false;
+                        }
+                        occupied |= bit;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether every piece lies entirely on the board} Legal moves
+     * never take a piece over the edge of the board, so every state
+     * reachable from such a state has this property too.
+     *
+     * @param state a packed state
+     */
+    public static boolean fitsOnBoard(long state) {
+        for (var tile = 0; tile < PIECES; tile++) {
+            if (row(state, tile) > BOARD_HEIGHT - 2 || col(state, tile) > BOARD_WIDTH - 2) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the piece can be moved to the direction specified}
+     * Moves that would take the position of the piece off the board are
+     * never legal.
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     * @param direction a direction
+     */
+    public static boolean canMove(long state, int tile, Direction direction) {
+        var row = row(state, tile);
+        var col = col(state, tile);
+        var blocked = switch (direction) {
+            case UP -> row == 0;
+            case RIGHT -> col == BOARD_WIDTH - 2;
+            case DOWN -> row == BOARD_HEIGHT - 2;
+            case LEFT -> col == 0;
+        };
+        if (blocked || !isOnBoard(row + direction.getRowChange(), col + direction.getColChange())) {
+            return false;
+        }
+        var cells = REQUIRED_FREE[tile][direction.ordinal()];
+        return isFree(state, row + cells[0], col + cells[1]) && isFree(state, row + cells[2], col + cells[3]);
+    }
+
+    /**
+     * {@return the state from which moving the piece to the direction given
+     * leads to the state specified, or {@code -1} if there is no such state}
+     * Moves are not always reversible, for example a piece that hangs over
+     * the bottom edge can move up but not back down, so the move is checked
+     * from the predecessor.
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     * @param direction the direction of the move leading to the state
+     */
+    public static long predecessor(long state, int tile, Direction direction) {
+        var row = row(state, tile) - direction.getRowChange();
+        var col = col(state, tile) - direction.getColChange();
+        if (!isOnBoard(row, col)) {
+            return -1;
+        }
+        var parent = withCell(state, tile, row * BOARD_WIDTH + col);
+        if (!isValid(parent) || !canMove(parent, tile, direction)) {
+            return -1;
+        }
+        return parent;
+    }
+
+    /**
+     * {@return the packed state after moving the piece to the direction
+     * specified} The legality of the move is not checked.
+     *
+     * @param state a packed state
+     * @param tile the index of a piece
+     * @param direction a direction
+     */
+    public static long move(long state, int tile, Direction direction) {
+        var cell = cell(state, tile) + direction.getRowChange() * BOARD_WIDTH + direction.getColChange();
+        return withCell(state, tile, cell);
+    }
+
+    /**
+     * {@return the packed state after the move specified} The legality of
+     * the move is not checked.
+     *
+     * @param state a packed state
+     * @param move a move code
+     */
+    public static long move(long state, int move) {
+        return move(state, tileOf(move), directionOf(move));
+    }
+
+    /**
+     * {@return the code of the move of the piece to the direction specified}
+     * Move codes range from zero to {@code MOVES - 1} and follow the order of
+     * the pieces first, then the order of the directions.
+     *
+     * @param tile the index of a piece
+     * @param direction a direction
+     */
+    public static int moveOf(int tile, Direction direction) {
+        return tile * 4 + direction.ordinal();
+    }
+
+    /**
+     * {@return the index of the piece moved by the move code specified}
+     *
+     * @param move a move code
+     */
+    public static int tileOf(int move) {
+        return move >> 2;
+    }
+
+    /**
+     * {@return the direction of the move code specified}
+     *
+     * @param move a move code
+     */
+    public static Direction directionOf(int move) {
+        return DIRECTIONS[move & 3];
+    }
+
+    /**
+     * {@return whether the square is surrounded by the four corner-tiles}
+     * Since the positions of all the pieces are fixed by that of the square
+     * in a goal state, this is a single lookup and comparison.
+     *
+     * @param state a packed state
+     */
+    public static boolean isGoal(long state) {
+        return GOAL_BY_SQUARE[cell(state, SQUARE)] == state;
+    }
+
+    /**
+     * {@return all the goal states, that is, every placement of the square on
+     * the board with the four corner-tiles surrounding it}
+     */
+    public static long[] goals() {
+        var goals = new long[(BOARD_HEIGHT - 2) * (BOARD_WIDTH - 2)];
+        var n = 0;
+        for (var row = 1; row < BOARD_HEIGHT - 1; row++) {
+            for (var col = 1; col < BOARD_WIDTH - 1; col++) {
+                var square = row * BOARD_WIDTH + col;
+                var state = withCell(0L, SQUARE, square);
+                state = withCell(state, TOPLEFT, square - BOARD_WIDTH - 1);
+                state = withCell(state, TOPRIGHT, square - BOARD_WIDTH + 1);
+                state = withCell(state, BOTTOMLEFT, square + BOARD_WIDTH - 1);
+                goals[n++] = withCell(state, BOTTOMRIGHT, square + BOARD_WIDTH + 1);
+            }
+        }
+        return goals;
+    }
+
+    /**
+     * {@return a well-distributed hash code of the packed state}
+     *
+     * @param state a packed state
+     */
+    public static int hash(long state) {
+        var h = state * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * {@return the string representation of the packed state} The format is
+     * the same as that of {@link PuzzleState#toString()}.
+     *
+     * @param state a packed state
+     */
+    public static String toString(long state) {
+        var sb = new StringBuilder("[");
+        for (var tile = 0; tile < PIECES; tile++) {
+            if (tile > 0) {
+                sb.append(',');
+            }
+            sb.append(position(state, tile));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static boolean inShape(int tile, int dr, int dc) {
+        return dr >= 0 && dr <= 1 && dc >= 0 && dc <= 1 && (SHAPES[tile] & (1 << (2 * dr + dc))) != 0;
+    }
+
+    private static boolean isOnBoard(int row, int col) {
+        return row >= 0 && row < BOARD_HEIGHT && col >= 0 && col < BOARD_WIDTH;
+    }
+
+}
@@ -0,0 +1,282 @@
+package puzzle.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The description of a sliding puzzle: the size of the board, the shape and
+ * the initial position of each piece, and the goal. Definitions are read from
+ * a line-oriented text format, and compiled into a {@link CompiledPuzzle}
+ * before solving.
+ *
+ * <p>Each line of the format holds a keyword followed by its arguments,
+ * blank lines and lines starting with {@code #} being ignored:
+ * <pre>
+ * board &lt;height&gt; &lt;width&gt;
+ * piece &lt;name&gt; &lt;row,col&gt;...
+ * start &lt;name&gt; &lt;row,col&gt;
+ * goal &lt;name&gt; &lt;row,col&gt;|* [&lt;name&gt; &lt;row,col&gt;]...
+ * </pre>
+ * The cells of a piece are given relative to its position. The goal lists
+ * some of the pieces: the first one with its position on the board, or
+ * {@code *} if it may be anywhere, and the others with their positions
+ * relative to the first one. Pieces not listed may be anywhere.
+ * The original puzzle is available as {@link #defaultDefinition()}.
+ *
+ * @param height the number of rows of the board
+ * @param width the number of columns of the board
+ * @param pieces the pieces, in the order of their indices
+ * @param start the initial position of each piece
+ * @param goal the goal
+ */
+public record PuzzleDefinition(int height, int width, List<Piece> pieces, List<Position> start, Goal goal) {
+
+    /**
+     * The name of the resource holding the definition of the original puzzle.
+     */
+    public static final String DEFAULT_RESOURCE = "/puzzle/default.puzzle";
+
+    /**
+     * The shape of a piece.
+     *
+     * @param name the name of the piece
+     * @param cells the cells covered by the piece, relative to its position
+     */
+    public record Piece(String name, List<Position> cells) {
+
+        /**
+         * Creates a piece.
+         *
+         * @throws IllegalArgumentException if the piece covers no cell or
+         * some cell twice
+         */
+        public Piece {
+            Objects.requireNonNull(name);
+            cells = List.copyOf(cells);
+            if (cells.isEmpty() || new HashSet<>(cells).size() != cells.size()) {
+                throw new IllegalArgumentException("Invalid cells of piece " + name);
+            }
+        }
+
+    }
+
+    /**
+     * The goal of a puzzle: a placement of some of the pieces relative to a
+     * reference piece.
+     *
+     * @param reference the index of the reference piece
+     * @param position the position of the reference piece, or {@code null}
+     *                 if it may be anywhere
+     * @param offsets the position of each piece relative to the reference
+     *                piece, indexed by piece, or {@code null} for the pieces
+     *                whose position does not matter
+     */
+    public record Goal(int reference, Position position, List<Position> offsets) {
+
+        /**
+         * Creates a goal.
+         *
+         * @throws IllegalArgumentException if the reference piece has no
+         * offset or an offset other than zero
+         */
+        public Goal {
+            offsets = Collections.unmodifiableList(new ArrayList<>(offsets));
+            if (reference < 0 || reference >= offsets.size()
+                    || !new Position(0, 0).equals(offsets.get(reference))) {
+                throw new IllegalArgumentException("Invalid reference piece of goal");
+            }
+        }
+
+    }
+
+    /**
+     * Creates a definition.
+     *
+     * @throws IllegalArgumentException if the definition is inconsistent, for
+     * example a piece starts off the board or two pieces overlap
+     */
+    public PuzzleDefinition {
+        pieces = List.copyOf(pieces);
+        start = List.copyOf(start);
+        Objects.requireNonNull(goal);
+        if (height < 1 || width < 1) {
+            throw new IllegalArgumentException("Invalid board size");
+        }
+        if (pieces.isEmpty() || start.size() != pieces.size() || goal.offsets().size() != pieces.size()) {
+            throw new IllegalArgumentException("Every piece needs a start position and a goal entry");
+        }
+        var goalPosition = goal.position();
+        if (goalPosition != null && (goalPosition.row() < 0 || goalPosition.row() >= height
+                || goalPosition.col() < 0 || goalPosition.col() >= width)) {
+            throw new IllegalArgumentException("The goal position is off the board");
+        }
+        var covered = new HashSet<Position>();
+        for (var i = 0; i < pieces.size(); i++) {
+            for (var cell : pieces.get(i).cells()) {
+                var row = start.get(i).row() + cell.row();
+                var col = start.get(i).col() + cell.col();
+                if (row < 0 || row >= height || col < 0 || col >= width) {
+                    throw new IllegalArgumentException("Piece " + pieces.get(i).name() + " starts off the board");
+                }
+                if (!covered.add(new Position(row, col))) {
+                    throw new IllegalArgumentException("Piece " + pieces.get(i).name() + " overlaps another piece");
+                }
+            }
+        }
+    }
+
+    /**
+     * {@return the index of the piece with the name specified}
+     *
+     * @param name the name of a piece
+     * @throws IllegalArgumentException if there is no such piece
+     */
+    public int indexOf(String name) {
+        for (var i = 0; i < pieces.size(); i++) {
+            if (pieces.get(i).name().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown piece " + name);
+    }
+
+    /**
+     * {@return the definition of the original puzzle}
+     */
+    public static PuzzleDefinition defaultDefinition() {
+        try (var in = PuzzleDefinition.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + DEFAULT_RESOURCE);
+            }
+            return parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@return the definition read from the file specified}
+     *
+     * @param path the path of a definition file
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if the file is not a valid definition
+     */
+    public static PuzzleDefinition load(Path path) throws IOException {
+        try (var reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * {@return the definition in the string specified}
+     *
+     * @param text a definition
+     * @throws IllegalArgumentException if the text is not a valid definition
+     */
+    public static PuzzleDefinition parse(String text) {
+        try {
+            return parse(new StringReader(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static PuzzleDefinition parse(Reader in) throws IOException {
+        var reader = new BufferedReader(in);
+        int[] board = null;
+        var pieces = new LinkedHashMap<String, Piece>();
+        var start = new LinkedHashMap<String, Position>();
+        Map<String, Position> goal = null;
+        Position goalPosition = null;
+        var lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            var tokens = line.split("\\s+");
+            var arguments = Arrays.asList(tokens).subList(1, tokens.length);
+            try {
+                switch (tokens[0]) {
+                    case "board" -> {
+                        expect(board == null && arguments.size() == 2, "Invalid board");
+                        board = new int[] {Integer.parseInt(arguments.get(0)), Integer.parseInt(arguments.get(1))};
+                    }
+                    case "piece" -> {
+                        expect(arguments.size() >= 2 && !pieces.containsKey(arguments.get(0)), "Invalid piece");
+                        var cells = arguments.subList(1, arguments.size()).stream()
+                                .map(PuzzleDefinition::parsePosition)
+                                .toList();
+                        pieces.put(arguments.get(0), new Piece(arguments.get(0), cells));
+                    }
+                    case "start" -> {
+                        expect(arguments.size() == 2 && pieces.containsKey(arguments.get(0))
+                                && !start.containsKey(arguments.get(0)), "Invalid start");
+                        start.put(arguments.get(0), parsePosition(arguments.get(1)));
+                    }
+                    case "goal" -> {
+                        expect(goal == null && !arguments.isEmpty() && arguments.size() % 2 == 0, "Invalid goal");
+                        goal = new LinkedHashMap<>();
+                        for (var i = 0; i < arguments.size(); i += 2) {
+                            expect(pieces.containsKey(arguments.get(i)) && !goal.containsKey(arguments.get(i)),
+                                    "Invalid goal");
+                            if (i == 0) {
+                                var anywhere = arguments.get(1).equals("*");
+                                goalPosition = anywhere ? null : parsePosition(arguments.get(1));
+                                goal.put(arguments.get(0), new Position(0, 0));
+                            } else {
+                                goal.put(arguments.get(i), parsePosition(arguments.get(i + 1)));
+                            }
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unknown keyword " + tokens[0]);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        expect(board != null, "Missing board");
+        expect(goal != null, "Missing goal");
+        var names = new ArrayList<>(pieces.keySet());
+        var offsets = new ArrayList<Position>();
+        var positions = new ArrayList<Position>();
+        for (var name : names) {
+            expect(start.containsKey(name), "Missing start of piece " + name);
+            positions.add(start.get(name));
+            offsets.add(goal.get(name));
+        }
+        var reference = names.indexOf(goal.keySet().iterator().next());
+        return new PuzzleDefinition(board[0], board[1], new ArrayList<>(pieces.values()), positions,
+                new Goal(reference, goalPosition, offsets));
+    }
+
+    private static Position parsePosition(String text) {
+        var parts = text.split(",");
+        expect(parts.length == 2, "Invalid position " + text);
+        return new Position(Integer.parseInt(parts[0].strip()), Integer.parseInt(parts[1].strip()));
+    }
+
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+}
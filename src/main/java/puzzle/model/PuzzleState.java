@@ -1,20 +1,27 @@
 package puzzle.model;
 
-import javafx.beans.binding.Bindings;
-import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.beans.property.ReadOnlyBooleanWrapper;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
-import javafx.beans.value.ObservableValue;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 /**
  * Represents the state of the puzzle.
  */
 public class PuzzleState implements Cloneable {
 
+    private static final String POSITION_REGEX = "\\((-?\\d+),(-?\\d+)\\)";
+
+    private static final Pattern STATE_PATTERN =
+            Pattern.compile("\\[" + POSITION_REGEX + "(," + POSITION_REGEX + ")*]");
+
+    private static final Pattern POSITION_PATTERN = Pattern.compile(POSITION_REGEX);
+
     /**
      * The height of the board.
      */
@@ -50,9 +57,11 @@ public class PuzzleState implements Cloneable {
      */
     public static final int BOTTOMRIGHT = 4;
 
-    private ReadOnlyObjectWrapper<Position>[] positions = new ReadOnlyObjectWrapper[5];
+    private long packed;
 
-    private ReadOnlyBooleanWrapper goal = new ReadOnlyBooleanWrapper();
+    private ReadOnlyObjectWrapper<Position>[] positions;
+
+    private ReadOnlyBooleanWrapper goal;
 
     /**
      * Creates a {@code PuzzleState} object that corresponds to the original
@@ -75,26 +84,58 @@ public class PuzzleState implements Cloneable {
      * @param positions the initial positions of the pieces
      */
     public PuzzleState(Position... positions) {
-        for (var i = 0; i < positions.length; i++) {
-            this.positions[i] = new ReadOnlyObjectWrapper<>(positions[i]);
-        }
-        checkPositions(positions);
-        goal.bind(setGoal());
+        this(PackedState.of(positions));
     }
 
-    private void checkPositions(Position[] positions) {
-        if (positions.length != 5) {
-            throw new IllegalArgumentException();
+    /**
+     * Creates a {@code PuzzleState} object from a packed state.
+     *
+     * @param packed the packed state as returned by {@link #getPacked()}
+     * @see PackedState
+     */
+    public PuzzleState(long packed) {
+        this.packed = packed;
+        checkPositions();
+    }
+
+    /**
+     * {@return the state represented by the string specified} The string is
+     * expected in the format produced by {@link #toString()}, for example
+     * {@code [(0,4),(0,0),(0,2),(2,0),(2,2)]}. Whitespace is ignored.
+     *
+     * @param text the string representation of a state
+     * @throws IllegalArgumentException if the string is malformed or does not
+     * represent a valid state
+     */
+    public static PuzzleState parse(String text) {
+        var compact = text.replaceAll("\\s+", "");
+        if (!STATE_PATTERN.matcher(compact).matches()) {
+            throw new IllegalArgumentException("Invalid state: " + text);
+        }
+        var positions = new ArrayList<Position>();
+        var matcher = POSITION_PATTERN.matcher(compact);
+        while (matcher.find()) {
+            positions.add(new Position(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+        }
+        if (positions.size() != PackedState.PIECES) {
+            throw new IllegalArgumentException("Invalid state: " + text);
         }
-        for (var position : positions) {
-            if (!isOnBoard(position)) {
+        return new PuzzleState(positions.toArray(Position[]::new));
+    }
+
+    private void checkPositions() {
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            if (PackedState.cell(packed, tile) >= PackedState.CELLS) {
                 throw new IllegalArgumentException();
             }
         }
-        checkForOverlaps(positions);
+        if ((packed >>> (PackedState.PIECES * PackedState.CELL_BITS)) != 0) {
+            throw new IllegalArgumentException();
+        }
+        checkForOverlaps();
     }
 
-    private void checkForOverlaps(Position[] positions) {
+    private void checkForOverlaps() {
         for (int tileNumber = 0; tileNumber < 5; tileNumber++) {
             for (int otherTileNumber = tileNumber + 1; otherTileNumber < 5; otherTileNumber++) {
                 for (var position : overlapOf(tileNumber)) {
@@ -106,7 +147,14 @@ public class PuzzleState implements Cloneable {
         }
     }
 
-
+    /**
+     * {@return the packed representation of the state}
+     *
+     * @see PackedState
+     */
+    public long getPacked() {
+        return packed;
+    }
 
     /**
      * {@return a copy of the position of the piece specified}
@@ -114,10 +162,24 @@ public class PuzzleState implements Cloneable {
      * @param n the number of a piece
      */
     public Position getPosition(int n) {
-        return positions[n].get();
+        return PackedState.position(packed, n);
     }
 
+    /**
+     * {@return the observable position of the piece specified} The property
+     * is created on first access, so states that are never observed do not
+     * pay for it.
+     *
+     * @param n the number of a piece
+     */
+    @SuppressWarnings("unchecked")
     public ReadOnlyObjectProperty<Position> positionProperty(int n) {
+        if (positions == null) {
+            positions = new ReadOnlyObjectWrapper[PackedState.PIECES];
+        }
+        if (positions[n] == null) {
+            positions[n] = new ReadOnlyObjectWrapper<>(getPosition(n));
+        }
         return positions[n].getReadOnlyProperty();
     }
 
@@ -125,20 +187,18 @@ public class PuzzleState implements Cloneable {
      * {@return whether the puzzle is solved}
      */
     public boolean isGoal() {
-        return goal.get();
-    }
-
-    public ObservableValue<? extends Boolean> setGoal() {
-        BooleanBinding condition = Bindings.createBooleanBinding(() ->
-                getPosition(SQUARE).equals(getPosition(TOPLEFT).getRight().getDown()) &&
-                        getPosition(SQUARE).equals(getPosition(TOPRIGHT).getLeft().getDown()) &&
-                        getPosition(SQUARE).equals(getPosition(BOTTOMLEFT).getRight().getUp()) &&
-                        getPosition(SQUARE).equals(getPosition(BOTTOMRIGHT).getLeft().getUp())
-        );
-        return condition;
+        return PackedState.isGoal(packed);
     }
 
+    /**
+     * {@return the observable goal flag of the state} The property is created
+     * on first access and is updated by {@link #move(int, Direction)} only
+     * when the state enters or leaves a goal state.
+     */
     public ReadOnlyBooleanProperty goalProperty() {
+        if (goal == null) {
+            goal = new ReadOnlyBooleanWrapper(isGoal());
+        }
         return goal.getReadOnlyProperty();
     }
 
@@ -149,76 +209,7 @@ public class PuzzleState implements Cloneable {
      * @param direction a direction to which the tile is intended to be moved
      */
     public boolean canMove(int tile, Direction direction) {
-        return switch (direction) {
-            case UP -> canMoveUp(tile);
-            case RIGHT -> canMoveRight(tile);
-            case DOWN -> canMoveDown(tile);
-            case LEFT -> canMoveLeft(tile);
-        };
-    }
-
-    private boolean canMoveUp(int tile) {
-        if (getPosition(tile).row() == 0) {
-            return false;
-        }
-        if (tile == BOTTOMLEFT) {
-            return isOverlapped(getPosition(tile).getUp()) &&
-                    isOverlapped(getPosition(tile).getRight());
-        }
-        if (tile == BOTTOMRIGHT) {
-            return isOverlapped(getPosition(tile)) &&
-                    isOverlapped(getPosition(tile).getUp().getRight());
-        }
-        return isOverlapped(getPosition(tile).getUp()) &&
-                isOverlapped(getPosition(tile).getUp().getRight());
-    }
-
-    private boolean canMoveRight(int tile) {
-        if (getPosition(tile).col() + 1 == BOARD_WIDTH - 1) {
-            return false;
-        }
-        if (tile == TOPLEFT) {
-            return isOverlapped(getPosition(tile).getRight().getRight()) &&
-                    isOverlapped(getPosition(tile).getRight().getDown());
-        }
-        if (tile == BOTTOMLEFT) {
-            return isOverlapped(getPosition(tile).getRight()) &&
-                    isOverlapped(getPosition(tile).getRight().getRight().getDown());
-        }
-        return isOverlapped(getPosition(tile).getRight().getRight()) &&
-                isOverlapped(getPosition(tile).getRight().getRight().getDown());
-    }
-
-    private boolean canMoveDown(int tile) {
-        if (getPosition(tile).row() + 1 == BOARD_HEIGHT - 1) {
-            return false;
-        }
-        if (tile == TOPLEFT) {
-            return isOverlapped(getPosition(tile).getDown().getDown()) &&
-                    isOverlapped(getPosition(tile).getRight().getDown());
-        }
-        if (tile == TOPRIGHT) {
-            return isOverlapped(getPosition(tile).getDown()) &&
-                    isOverlapped(getPosition(tile).getRight().getDown().getDown());
-        }
-        return isOverlapped(getPosition(tile).getDown().getDown()) &&
-                isOverlapped(getPosition(tile).getDown().getDown().getRight());
-    }
-
-    private boolean canMoveLeft(int tile) {
-        if (getPosition(tile).col() == 0) {
-            return false;
-        }
-        if (tile == TOPRIGHT) {
-            return isOverlapped(getPosition(tile).getRight()) &&
-                    isOverlapped(getPosition(tile).getDown());
-        }
-        if (tile == BOTTOMRIGHT) {
-            return isOverlapped(getPosition(tile)) &&
-                    isOverlapped(getPosition(tile).getDown().getLeft());
-        }
-        return isOverlapped(getPosition(tile).getLeft()) &&
-                isOverlapped(getPosition(tile).getLeft().getDown());
+        return MoveGenerator.canMove(packed, MoveGenerator.occupancy(packed), tile, direction);
     }
 
     /**
@@ -226,25 +217,27 @@ public class PuzzleState implements Cloneable {
      *
      * @param tile the tile that is being moved
      * @param direction the direction to which the tile is moved
+     * @throws IllegalArgumentException if the tile would leave the board
      */
     public void move(int tile, Direction direction) {
-        switch (direction) {
-            case UP -> movePiece(tile, Direction.UP);
-            case RIGHT -> movePiece(tile, Direction.RIGHT);
-            case DOWN -> movePiece(tile, Direction.DOWN);
-            case LEFT -> movePiece(tile, Direction.LEFT);
+        var newPosition = getPosition(tile).getPosition(direction);
+        if (!isOnBoard(newPosition)) {
+            throw new IllegalArgumentException();
+        }
+        packed = PackedState.move(packed, tile, direction);
+        if (positions != null && positions[tile] != null) {
+            positions[tile].set(newPosition);
+        }
+        if (goal != null && goal.get() != isGoal()) {
+            goal.set(!goal.get());
         }
-    }
-
-    private void movePiece(int n, Direction direction) {
-        var newPosition = getPosition(n).getPosition(direction);
-        positions[n].set(newPosition);
     }
 
     /**
-     * {@return all the directions each tile can be moved}
+     * {@return a direction to which each tile can be moved} A tile that can
+     * be moved to several directions is mapped to the last of them only, use
+     * {@link #getLegalMoves(int[])} to enumerate every legal move.
      */
-    // TODO: modify legalMoves to TreeMap<Integer, ArrayList<Direction>> because each tile could move different directions
     public TreeMap<Integer, Direction> getLegalMoves() {
         TreeMap<Integer, Direction> legalMoves = new TreeMap<>();
         for (var direction : Direction.values()) {
@@ -257,25 +250,25 @@ public class PuzzleState implements Cloneable {
         return legalMoves;
     }
 
+    /**
+     * Writes the codes of all the legal moves into the array specified, in
+     * increasing order, without allocating any objects.
+     *
+     * @param moves an array of at least {@link PackedState#MOVES} elements
+     * @return the number of legal moves written
+     * @see PackedState#moveOf(int, Direction)
+     */
+    public int getLegalMoves(int[] moves) {
+        return MoveGenerator.successors(packed, moves);
+    }
+
     private boolean isOnBoard(Position position) {
         return position.row() >= 0 && position.row() < BOARD_HEIGHT &&
                 position.col() >= 0 && position.col() < BOARD_WIDTH;
     }
 
     public boolean isOverlapped(Position position) {
-        if (!isOnBoard(position)) {
-            return true;
-        }
-        // handle the case where bottom right's position is empty because of the nature of it's shape
-        if (position.equals(getPosition(BOTTOMRIGHT))) {
-            return true;
-        }
-        for (int tileNumber = 0; tileNumber < 5; tileNumber++) {
-            if (overlapOf(tileNumber).contains(position)) {
-                return false;
-            }
-        }
-        return true;
+        return PackedState.isFree(packed, position.row(), position.col());
     }
 
     public ArrayList<Position> overlapOf(int tile) {
@@ -316,38 +309,29 @@ public class PuzzleState implements Cloneable {
         if (o == this) {
             return true;
         }
-        return (o instanceof PuzzleState other) && equals(positions, other.positions);
+        return (o instanceof PuzzleState other) && packed == other.packed;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(positions[0].get(), positions[1].get(), positions[2].get(), positions[3].get(), positions[4].get());
+        return PackedState.hash(packed);
     }
 
     @Override
     public PuzzleState clone() {
-        return new PuzzleState(getPosition(0), getPosition(1), getPosition(2), getPosition(3), getPosition(4));
+        try {
+            var copy = (PuzzleState) super.clone();
+            copy.positions = null;
+            copy.goal = null;
+            return copy;
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
     }
 
     @Override
     public String toString() {
-        var sj = new StringJoiner(",", "[", "]");
-        for (var position : positions) {
-            sj.add(position.get().toString());
-        }
-        return sj.toString();
-    }
-
-    private boolean equals(ObservableValue[] a1, ObservableValue[] a2) {
-        if (a1.length != a2.length) {
-            return false;
-        }
-        for (var i = 0; i < a1.length; i++) {
-            if (!a1[i].getValue().equals(a2[i].getValue())) {
-                return false;
-            }
-        }
-        return true;
+        return PackedState.toString(packed);
     }
 
 }
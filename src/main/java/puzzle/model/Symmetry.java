@@ -0,0 +1,208 @@
+package puzzle.model;
+
+import static puzzle.model.PuzzleState.BOARD_HEIGHT;
+import static puzzle.model.PuzzleState.BOARD_WIDTH;
+import static puzzle.model.PuzzleState.BOTTOMLEFT;
+import static puzzle.model.PuzzleState.BOTTOMRIGHT;
+import static puzzle.model.PuzzleState.SQUARE;
+import static puzzle.model.PuzzleState.TOPLEFT;
+import static puzzle.model.PuzzleState.TOPRIGHT;
+
+/**
+ * The symmetries of the puzzle, acting on packed states and move codes.
+ *
+ * <p>Mirroring the board left to right turns the top-left corner-tile into a
+ * top-right one and the bottom-left into a bottom-right one, and mirroring it
+ * top to bottom swaps the top and bottom corner-tiles likewise. Both map goal
+ * states to goal states and legal moves to legal moves, and so does their
+ * composition, the half turn. A symmetry is identified by two bits,
+ * {@link #MIRROR_LEFT_RIGHT} and {@link #MIRROR_TOP_BOTTOM}; composing two
+ * symmetries is the exclusive or of their bits, and every symmetry is its
+ * own inverse.
+ *
+ * <p>Only states whose pieces all lie entirely on the board, see
+ * {@link PackedState#fitsOnBoard(long)}, have images: the mirror image of a
+ * piece that hangs over the last row or column would hang over the first
+ * one, where it has no position. Legal moves keep a state on the board, so
+ * these states are closed under moves as well as under the symmetries.
+ *
+ * <p>The canonical form of a state on the board is the smallest packed state
+ * among its images, so that states that are mirror images of each other have
+ * the same canonical form. Any other state is its own canonical form.
+ */
+public final class Symmetry {
+
+    /**
+     * The identity.
+     */
+    public static final int IDENTITY = 0;
+
+    /**
+     * The mirror image of the board through its vertical axis.
+     */
+    public static final int MIRROR_LEFT_RIGHT = 1;
+
+    /**
+     * The mirror image of the board through its horizontal axis.
+     */
+    public static final int MIRROR_TOP_BOTTOM = 2;
+
+    /**
+     * The half turn of the board.
+     */
+    public static final int ROTATE_HALF = MIRROR_LEFT_RIGHT | MIRROR_TOP_BOTTOM;
+
+    /**
+     * The number of symmetries.
+     */
+    public static final int COUNT = 4;
+
+    private static final int[] LEFT_RIGHT_PIECES = {SQUARE, TOPRIGHT, TOPLEFT, BOTTOMRIGHT, BOTTOMLEFT};
+
+    private static final int[] TOP_BOTTOM_PIECES = {SQUARE, BOTTOMLEFT, BOTTOMRIGHT, TOPLEFT, TOPRIGHT};
+
+    /**
+     * The piece each piece is mapped to, indexed by symmetry and piece.
+     */
+    private static final int[][] PIECES = new int[COUNT][PackedState.PIECES];
+
+    /**
+     * The cell the position of a piece is mapped to, indexed by symmetry and
+     * cell. The position of a piece is the top-left cell of its 2x2 bounding
+     * box, so it is mirrored within the positions a piece can take on the
+     * board. Positions in the last row or column have no image and are not
+     * mapped.
+     */
+    private static final int[][] CELLS = new int[COUNT][PackedState.CELLS];
+
+    /**
+     * The move each move is mapped to, indexed by symmetry and move code.
+     */
+    private static final int[][] MOVES = new int[COUNT][PackedState.MOVES];
+
+    static {
+        for (var symmetry = 0; symmetry < COUNT; symmetry++) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                var image = tile;
+                if ((symmetry & MIRROR_LEFT_RIGHT) != 0) {
+                    image = LEFT_RIGHT_PIECES[image];
+                }
+                if ((symmetry & MIRROR_TOP_BOTTOM) != 0) {
+                    image = TOP_BOTTOM_PIECES[image];
+                }
+                PIECES[symmetry][tile] = image;
+            }
+            for (var cell = 0; cell < PackedState.CELLS; cell++) {
+                var row = cell / BOARD_WIDTH;
+                var col = cell % BOARD_WIDTH;
+                if ((symmetry & MIRROR_LEFT_RIGHT) != 0) {
+                    col = BOARD_WIDTH - 2 - col;
+                }
+                if ((symmetry & MIRROR_TOP_BOTTOM) != 0) {
+                    row = BOARD_HEIGHT - 2 - row;
+                }
+                if (row >= 0 && row < BOARD_HEIGHT - 1 && col >= 0 && col < BOARD_WIDTH - 1) {
+                    CELLS[symmetry][cell] = row * BOARD_WIDTH + col;
+                } else {
+                    CELLS[symmetry][cell] = -1;
+                }
+            }
+            for (var move = 0; move < PackedState.MOVES; move++) {
+                var direction = PackedState.directionOf(move);
+                if ((symmetry & MIRROR_LEFT_RIGHT) != 0 && direction.getColChange() != 0
+                        || (symmetry & MIRROR_TOP_BOTTOM) != 0 && direction.getRowChange() != 0) {
+                    direction = direction.opposite();
+                }
+                MOVES[symmetry][move] = PackedState.moveOf(PIECES[symmetry][PackedState.tileOf(move)], direction);
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * {@return the image of the packed state under the symmetry specified}
+     *
+     * @param state a packed state whose pieces all lie on the board
+     * @param symmetry a symmetry
+     * @throws IllegalArgumentException if a piece of the state hangs over the
+     * edge of the board
+     */
+    public static long apply(long state, int symmetry) {
+        var pieces = PIECES[symmetry];
+        var cells = CELLS[symmetry];
+        var image = 0L;
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            var cell = cells[PackedState.cell(state, tile)];
+            if (cell < 0) {
+                throw new IllegalArgumentException();
+            }
+            image = PackedState.withCell(image, pieces[tile], cell);
+        }
+        return image;
+    }
+
+    /**
+     * {@return the image of the move code under the symmetry specified} If a
+     * move leads from a state to another, its image leads from the image of
+     * the first state to the image of the second.
+     *
+     * @param move a move code
+     * @param symmetry a symmetry
+     */
+    public static int applyToMove(int move, int symmetry) {
+        return MOVES[symmetry][move];
+    }
+
+    /**
+     * {@return the canonical form of the packed state, the smallest of its
+     * images} A state with a piece hanging over the edge of the board is its
+     * own canonical form.
+     *
+     * @param state a packed state
+     */
+    public static long canonical(long state) {
+        if (!PackedState.fitsOnBoard(state)) {
+            return state;
+        }
+        var canonical = state;
+        for (var symmetry = 1; symmetry < COUNT; symmetry++) {
+            canonical = Math.min(canonical, apply(state, symmetry));
+        }
+        return canonical;
+    }
+
+    /**
+     * {@return a symmetry that maps the packed state to its canonical form}
+     *
+     * @param state a packed state
+     */
+    public static int canonicalSymmetry(long state) {
+        return symmetryBetween(state, canonical(state));
+    }
+
+    /**
+     * {@return a symmetry that maps the first packed state to the second}
+     *
+     * @param from a packed state
+     * @param to a packed state
+     * @throws IllegalArgumentException if the second state is not an image of
+     * the first
+     */
+    public static int symmetryBetween(long from, long to) {
+        if (from == to) {
+            return IDENTITY;
+        }
+        if (!PackedState.fitsOnBoard(from)) {
+            throw new IllegalArgumentException();
+        }
+        for (var symmetry = 0; symmetry < COUNT; symmetry++) {
+            if (apply(from, symmetry) == to) {
+                return symmetry;
+            }
+        }
+        throw new IllegalArgumentException();
+    }
+
+}
@@ -0,0 +1,68 @@
+package puzzle.server;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latency samples in a fixed-size ring buffer and
+ * reports their percentiles. Memory use does not grow with the number of
+ * samples recorded.
+ */
+public class LatencyRecorder {
+
+    private final long[] samples;
+
+    private long count;
+
+    /**
+     * Creates a recorder that keeps the number of samples specified.
+     *
+     * @param size the number of most recent samples kept
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public LatencyRecorder(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException();
+        }
+        samples = new long[size];
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos a latency in nanoseconds
+     */
+    public synchronized void record(long nanos) {
+        samples[(int) (count++ % samples.length)] = nanos;
+    }
+
+    /**
+     * {@return the number of samples recorded since the recorder was created}
+     */
+    public synchronized long count() {
+        return count;
+    }
+
+    /**
+     * {@return the percentile of the samples kept, by the nearest-rank
+     * method, or zero if there are none}
+     *
+     * @param percentile a number in the range {@code (0, 100]}
+     * @throws IllegalArgumentException if {@code percentile} is out of range
+     */
+    public long percentile(double percentile) {
+        if (!(percentile > 0 && percentile <= 100)) {
+            throw new IllegalArgumentException();
+        }
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+        }
+        if (sorted.length == 0) {
+            return 0;
+        }
+        Arrays.sort(sorted);
+        var rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+}
@@ -0,0 +1,124 @@
+package puzzle.server;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+
+/**
+ * A bounded cache of solutions keyed by packed state, evicting the least
+ * recently used entry when full. A solution is the array of move codes of a
+ * path to a goal state, or an empty {@code Optional} if no goal state is
+ * reachable.
+ *
+ * <p>The solutions are computed outside the lock, so concurrent misses on the
+ * same state may both compute it; the last one stored wins, which is harmless
+ * since the solutions are equal.
+ */
+public class SolutionCache {
+
+    private final int capacity;
+
+    private final Map<Long, Optional<int[]>> solutions;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the maximum number of solutions kept
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public SolutionCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.capacity = capacity;
+        solutions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Optional<int[]>> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * {@return the solution of the packed state, computing and storing it if
+     * it is not in the cache}
+     *
+     * @param state a packed state
+     * @param solver computes the solution of a packed state
+     */
+    public Optional<int[]> get(long state, LongFunction<Optional<int[]>> solver) {
+        Optional<int[]> solution;
+        synchronized (solutions) {
+            solution = solutions.get(state);
+        }
+        if (solution != null) {
+            hits.increment();
+            return solution;
+        }
+        misses.increment();
+        solution = solver.apply(state);
+        synchronized (solutions) {
+            solutions.put(state, solution);
+        }
+        return solution;
+    }
+
+    /**
+     * {@return whether the cache holds the solution of the packed state}
+     * The recency of the entry is not updated.
+     *
+     * @param state a packed state
+     */
+    public boolean contains(long state) {
+        synchronized (solutions) {
+            return solutions.containsKey(state);
+        }
+    }
+
+    /**
+     * {@return the number of solutions in the cache}
+     */
+    public int size() {
+        synchronized (solutions) {
+            return solutions.size();
+        }
+    }
+
+    /**
+     * {@return the maximum number of solutions kept}
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@return the number of lookups answered from the cache}
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * {@return the number of lookups that had to compute the solution}
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * {@return the fraction of lookups answered from the cache, or zero if
+     * there were none}
+     */
+    public double hitRate() {
+        var hits = hits();
+        var total = hits + misses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+}
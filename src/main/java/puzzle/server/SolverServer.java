@@ -0,0 +1,253 @@
+package puzzle.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.tinylog.Logger;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.solver.Node;
+import puzzle.solver.Solver;
+import puzzle.util.VirtualThreads;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * An embedded HTTP service that solves the puzzle, built on the
+ * {@code com.sun.net.httpserver} server of the JDK.
+ *
+ * <p>The service has two endpoints:
+ * <ul>
+ *     <li>{@code /solve} takes a state in the format of
+ *     {@link PuzzleState#toString()}, either as the {@code state} query
+ *     parameter of a {@code GET} request or as the body of a {@code POST}
+ *     request, and returns {@code {"state":..., "length":..., "moves":[...],
+ *     "cached":...}}, each move written as {@code "tile:DIRECTION"}. The
+ *     length is {@code -1} if no goal state is reachable. An invalid state
+ *     yields status 400, and a search that fails yields status 500, both
+ *     with {@code {"error":...}}.</li>
+ *     <li>{@code /stats} returns the number of solve requests, the cache
+ *     hits, misses and hit rate, and the 50th and 99th percentiles of the
+ *     latency of the recent solve requests in microseconds.</li>
+ * </ul>
+ *
+ * <p>Solutions are kept in a {@link SolutionCache} keyed by packed state.
+ * Each request is handled on a virtual thread when the runtime provides
+ * them, and on a thread of a cached pool otherwise.
+ */
+public class SolverServer implements AutoCloseable {
+
+    /**
+     * The port the service listens on by default.
+     */
+    public static final int DEFAULT_PORT = 8080;
+
+    /**
+     * The number of solutions cached by default.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 1 << 12;
+
+    private static final int LATENCY_SAMPLES = 1 << 12;
+
+    private static final String USAGE = "Usage: SolverServer [--port <n>] [--cache <n>] [--solver <name>]";
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Supplier<? extends Solver> solvers;
+
+    private final SolutionCache cache;
+
+    private final LatencyRecorder latencies = new LatencyRecorder(LATENCY_SAMPLES);
+
+    /**
+     * Creates a service bound to the address specified. The service does not
+     * accept requests until it is {@linkplain #start() started}.
+     *
+     * @param address the address to listen on, port 0 picking a free port
+     * @param solvers creates the solver of a request
+     * @param cacheSize the number of solutions cached
+     * @throws IOException if the address cannot be bound
+     */
+    public SolverServer(InetSocketAddress address, Supplier<? extends Solver> solvers, int cacheSize)
+            throws IOException {
+        this.solvers = solvers;
+        cache = new SolutionCache(cacheSize);
+        executor = VirtualThreads.newExecutor();
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/solve", this::solve);
+        server.createContext("/stats", this::stats);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        Logger.info("Solver service listening on port {}", getPort());
+    }
+
+    /**
+     * {@return the port the service listens on}
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * {@return the cache of solutions}
+     */
+    public SolutionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * {@return the latencies of the recent solve requests}
+     */
+    public LatencyRecorder getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Stops the service, aborting the requests in progress.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void solve(HttpExchange exchange) throws IOException {
+        var start = System.nanoTime();
+        try (exchange) {
+            String text;
+            switch (exchange.getRequestMethod()) {
+                case "GET" -> text = queryParameter(exchange, "state");
+                case "POST" -> text = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                default -> {
+                    send(exchange, 405, error("Method not allowed"));
+                    return;
+                }
+            }
+            PuzzleState state;
+            try {
+                state = PuzzleState.parse(text == null ? "" : text);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            var packed = state.getPacked();
+            var cached = cache.contains(packed);
+            Optional<int[]> solution;
+            try {
+                solution = cache.get(packed, this::solve);
+            } catch (RuntimeException e) {
+                // including a search cancelled by close()
+                Logger.error(e, "Solving {} failed", state);
+                send(exchange, 500, error(String.valueOf(e)));
+                return;
+            }
+            var moves = solution.map(codes -> Arrays.stream(codes)
+                            .mapToObj(move -> json(PackedState.tileOf(move) + ":" + PackedState.directionOf(move)))
+                            .collect(Collectors.joining(",")))
+                    .orElse("");
+            send(exchange, 200, String.format("{\"state\":%s,\"length\":%d,\"moves\":[%s],\"cached\":%b}",
+                    json(state.toString()), solution.map(codes -> codes.length).orElse(-1), moves, cached));
+        } finally {
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    private Optional<int[]> solve(long state) {
+        return solvers.get().solve(new PuzzleState(state)).path().map(Node::getMoves);
+    }
+
+    private void stats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            send(exchange, 200, String.format(Locale.ROOT,
+                    "{\"requests\":%d,\"hits\":%d,\"misses\":%d,\"hitRate\":%.4f,\"p50Micros\":%d,\"p99Micros\":%d}",
+                    latencies.count(), cache.hits(), cache.misses(), cache.hitRate(),
+                    latencies.percentile(50) / 1000, latencies.percentile(99) / 1000));
+        }
+    }
+
+    private static String queryParameter(HttpExchange exchange, String name) {
+        var query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return null;
+        }
+        for (var parameter : query.split("&")) {
+            var separator = parameter.indexOf('=');
+            if (separator >= 0 && parameter.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + json(String.valueOf(message)) + "}";
+    }
+
+    private static String json(String text) {
+        var sb = new StringBuilder("\"");
+        for (var c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        var port = DEFAULT_PORT;
+        var cacheSize = DEFAULT_CACHE_SIZE;
+        var solver = "astar";
+        if (args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        for (var i = 0; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--cache" -> cacheSize = Integer.parseInt(args[i + 1]);
+                case "--solver" -> solver = args[i + 1];
+                default -> {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            }
+        }
+        var server = new SolverServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+                Solver.factory(solver), cacheSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+    }
+
+}
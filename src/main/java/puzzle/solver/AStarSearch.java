@@ -0,0 +1,122 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
+import puzzle.util.LongPriorityQueue;
+
+import java.util.Optional;
+
+/**
+ * A* search guided by a {@link Heuristic}. With an admissible and consistent
+ * heuristic the path found is a shortest one.
+ *
+ * <p>The open list is a heap of {@code long} keys holding the estimated
+ * path length, the number of moves made (ties are broken in favour of the
+ * deeper state) and the id of the state in a {@link SearchArena}.
+ */
+public class AStarSearch implements Solver {
+
+    private static final int MAX_COST = 0xFFFF;
+
+    private final Heuristic heuristic;
+
+    private long expandedCount;
+
+    private long arenaBytes;
+
+    /**
+     * Creates a solver guided by the {@link ManhattanHeuristic}.
+     */
+    public AStarSearch() {
+        this(new ManhattanHeuristic());
+    }
+
+    /**
+     * Creates a solver guided by the heuristic specified.
+     *
+     * @param heuristic an admissible heuristic
+     */
+    public AStarSearch(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var monitor = new SearchMonitor(this, state.getPacked());
+        var arena = new SearchArena();
+        var open = new LongPriorityQueue();
+        var closed = new LongHashSet();
+        var moves = new int[PackedState.MOVES];
+        var start = state.getPacked();
+        open.add(key(heuristic.estimate(start), 0, arena.add(start, SearchArena.NO_PARENT, 0)));
+        // the estimated path length of the states being expanded
+        var bound = -1;
+        try {
+            while (!open.isEmpty()) {
+                monitor.frontierSize(open.size());
+                var key = open.poll();
+                var id = (int) key;
+                var packed = arena.state(id);
+                if (!closed.add(packed)) {
+                    monitor.duplicates(1);
+                    continue;
+                }
+                var estimate = (int) (key >>> 48);
+                if (estimate > bound) {
+                    bound = estimate;
+                    monitor.layer(bound, open.size() + 1);
+                }
+                if (PackedState.isGoal(packed)) {
+                    return finish(monitor, Optional.of(arena.toNode(id)), closed);
+                }
+                monitor.expanded();
+                var cost = MAX_COST - (int) ((key >>> 32) & MAX_COST) + 1;
+                var count = MoveGenerator.successors(packed, moves);
+                monitor.generated(count);
+                for (var i = 0; i < count; i++) {
+                    var child = PackedState.move(packed, moves[i]);
+                    if (!closed.contains(child)) {
+                        var childId = arena.add(child, id, moves[i]);
+                        open.add(key(cost + heuristic.estimate(child), cost, childId));
+                    } else {
+                        monitor.duplicates(1);
+                    }
+                }
+            }
+            return finish(monitor, Optional.empty(), closed);
+        } finally {
+            expandedCount = monitor.expandedCount();
+            arenaBytes = arena.bytesUsed();
+        }
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * {@return the number of bytes allocated for the search arena during the
+     * last search}
+     */
+    public long getArenaBytes() {
+        return arenaBytes;
+    }
+
+    private static SearchResult finish(SearchMonitor monitor, Optional<Node> path, LongHashSet closed) {
+        monitor.visitedSize(closed.size());
+        return monitor.finish(path);
+    }
+
+    private static long key(int estimate, int cost, int id) {
+        if (estimate > MAX_COST || cost > MAX_COST) {
+            throw new IllegalStateException("Path too long");
+        }
+        return ((long) estimate << 48) | ((long) (MAX_COST - cost) << 32) | (id & 0xFFFFFFFFL);
+    }
+
+}
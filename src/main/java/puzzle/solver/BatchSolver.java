@@ -0,0 +1,225 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Solves a batch of start states concurrently, writing the result of each one
+ * as soon as it is found.
+ *
+ * <p>The input has one state per line in the format of
+ * {@link PuzzleState#toString()}; blank lines and lines starting with
+ * {@code #} are skipped. Every other line yields one tab-separated output
+ * line:
+ * <pre>
+ * &lt;line&gt; &lt;state&gt; &lt;length&gt; &lt;millis&gt; &lt;expanded&gt; &lt;moves&gt;
+ * </pre>
+ * where the length is {@code -1} and the moves are empty if no goal state is
+ * reachable, and each move is written as {@code tile:DIRECTION}. Lines that
+ * are not valid states yield {@code <line> <input> invalid <message>}, and
+ * states whose search fails with an exception yield
+ * {@code <line> <input> error <exception>}.
+ * Output lines appear in the order the searches finish, not in input order,
+ * hence the line number.
+ *
+ * <p>The input is read by the calling thread and only a bounded number of
+ * states is in flight at once, so memory use does not depend on the size of
+ * the input. Each worker thread has its own solver instance.
+ */
+public class BatchSolver {
+
+    private static final String USAGE =
+            "Usage: BatchSolver <input> <output> [--threads <n>] [--solver bfs|parallel-bfs[:<threads>]|symmetric-bfs|bidirectional|astar|idastar|iddfs[:<bytes>]|table]";
+
+    private final Supplier<? extends Solver> solvers;
+
+    private final int threads;
+
+    private final int maxPending;
+
+    private volatile long failureCount;
+
+    /**
+     * Creates a batch solver that uses as many threads as there are
+     * processors.
+     *
+     * @param solvers creates the solver of each worker thread
+     */
+    public BatchSolver(Supplier<? extends Solver> solvers) {
+        this(solvers, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch solver that uses the number of threads specified.
+     *
+     * @param solvers creates the solver of each worker thread
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if {@code threads} is not positive
+     */
+    public BatchSolver(Supplier<? extends Solver> solvers, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.solvers = solvers;
+        this.threads = threads;
+        maxPending = 4 * threads;
+    }
+
+    /**
+     * {@return the number of worker threads}
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * {@return the number of states whose search failed with an exception in
+     * the last batch}
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * Solves every state of the input, writing the results to the output.
+     * The output is flushed after every result, so each one can be read as
+     * soon as its search finishes. The method returns when all the results
+     * have been written; the output is not closed. A search that fails with an exception only
+     * yields an error line for its state, see {@link #getFailureCount()}.
+     *
+     * @param in the input, one state per line
+     * @param out the output
+     * @return the number of results written
+     * @throws IOException if an I/O error occurs
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public long solve(BufferedReader in, Writer out) throws IOException, InterruptedException {
+        var pending = new Semaphore(maxPending);
+        var errors = Collections.synchronizedList(new ArrayList<IOException>());
+        var failures = new AtomicLong();
+        var solver = ThreadLocal.<Solver>withInitial(solvers::get);
+        var count = 0L;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            var lineNumber = 0L;
+            String line;
+            while ((line = in.readLine()) != null && errors.isEmpty()) {
+                lineNumber++;
+                var input = line.strip();
+                if (input.isEmpty() || input.startsWith("#")) {
+                    continue;
+                }
+                pending.acquire();
+                var number = lineNumber;
+                executor.execute(() -> {
+                    try {
+                        String result;
+                        try {
+                            result = solve(solver.get(), number, input);
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                            result = String.join("\t", String.valueOf(number), input, "error", String.valueOf(e));
+                        }
+                        synchronized (out) {
+                            out.write(result);
+                            out.write(System.lineSeparator());
+                            out.flush();
+                        }
+                    } catch (IOException e) {
+                        errors.add(e);
+                    } finally {
+                        pending.release();
+                    }
+                });
+                count++;
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            failureCount = failures.get();
+        }
+        if (!errors.isEmpty()) {
+            throw errors.get(0);
+        }
+        return count;
+    }
+
+    private static String solve(Solver solver, long lineNumber, String input) {
+        PuzzleState state;
+        try {
+            state = PuzzleState.parse(input);
+        } catch (IllegalArgumentException e) {
+            return String.join("\t", String.valueOf(lineNumber), input, "invalid", String.valueOf(e.getMessage()));
+        }
+        var result = solver.solve(state);
+        var statistics = result.statistics();
+        var moves = result.path().map(BatchSolver::moves).orElse(List.of());
+        return String.join("\t",
+                String.valueOf(lineNumber),
+                state.toString(),
+                String.valueOf(result.path().isPresent() ? moves.size() : -1),
+                String.valueOf(TimeUnit.NANOSECONDS.toMillis(statistics.elapsedNanos())),
+                String.valueOf(statistics.expandedCount()),
+                String.join(" ", moves));
+    }
+
+    private static List<String> moves(Node node) {
+        return Arrays.stream(node.getMoves())
+                .mapToObj(move -> PackedState.tileOf(move) + ":" + PackedState.directionOf(move))
+                .toList();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        var threads = Runtime.getRuntime().availableProcessors();
+        var solver = "bfs";
+        for (var i = 2; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--solver" -> solver = args[i + 1];
+                default -> {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            }
+        }
+        if (solver.equals("parallel-bfs") && threads > 1) {
+            // each worker has its own solver, whose pool would otherwise
+            // have a thread per processor too
+            solver = "parallel-bfs:1";
+        }
+        var batch = new BatchSolver(Solver.factory(solver), threads);
+        var start = System.nanoTime();
+        try (var in = Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8);
+             var out = Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)) {
+            var count = batch.solve(in, out);
+            System.out.printf("Solved %d states on %d threads in %d ms%n",
+                    count, threads, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        if (batch.getFailureCount() > 0) {
+            System.err.printf("The search failed for %d states%n", batch.getFailureCount());
+            System.exit(1);
+        }
+    }
+
+}
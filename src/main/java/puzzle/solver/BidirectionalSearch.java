@@ -0,0 +1,208 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Breadth-first search that grows one layer at a time from the start state
+ * and, backwards, from the set of all goal states, always expanding the
+ * smaller side, until the two meet.
+ *
+ * <p>Among all the shortest paths the one returned is the same that
+ * {@link BreadthFirstSearch} finds: at every step it takes the move with the
+ * lowest move code that still leads to a goal state in the fewest moves.
+ */
+public class BidirectionalSearch implements Solver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private long expandedCount;
+
+    // the monitor of the search in progress
+    private SearchMonitor monitor;
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var start = state.getPacked();
+        monitor = new SearchMonitor(this, start);
+        try {
+            var forward = new Side(new long[] {start});
+            var backward = new Side(goalsReachableFrom(start));
+            var path = search(start, forward, backward);
+            monitor.visitedSize(forward.seen.size() + backward.seen.size());
+            return monitor.finish(path);
+        } finally {
+            expandedCount = monitor.expandedCount();
+            monitor = null;
+        }
+    }
+
+    private Optional<Node> search(long start, Side forward, Side backward) {
+        if (backward.seen.contains(start)) {
+            return Optional.of(Node.of(start, new int[0]));
+        }
+        while (true) {
+            var expandForward = forward.last().size() <= backward.last().size();
+            var met = expandForward ? expandForward(forward, backward) : expandBackward(backward, forward);
+            // the depth of the search is the number of layers grown from both sides
+            monitor.layer(forward.layers.size() + backward.layers.size() - 2,
+                    (expandForward ? forward : backward).last().size());
+            monitor.frontierSize(forward.last().size() + backward.last().size());
+            if (met) {
+                return Optional.of(Node.of(start, path(start, forward, backward)));
+            }
+            if (forward.last().isEmpty() || backward.last().isEmpty()) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    private boolean expandForward(Side forward, Side backward) {
+        var next = new LongHashSet();
+        var moves = new int[PackedState.MOVES];
+        var met = false;
+        for (var state : forward.last().toArray()) {
+            monitor.expanded();
+            var count = MoveGenerator.successors(state, moves);
+            monitor.generated(count);
+            for (var i = 0; i < count; i++) {
+                var child = PackedState.move(state, moves[i]);
+                if (!forward.seen.contains(child) && next.add(child)) {
+                    met |= backward.seen.contains(child);
+                } else {
+                    monitor.duplicates(1);
+                }
+            }
+        }
+        forward.add(next);
+        return met;
+    }
+
+    private boolean expandBackward(Side backward, Side forward) {
+        var next = new LongHashSet();
+        var met = false;
+        for (var state : backward.last().toArray()) {
+            monitor.expanded();
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                for (var direction : DIRECTIONS) {
+                    var parent = PackedState.predecessor(state, tile, direction);
+                    if (parent < 0) {
+                        continue;
+                    }
+                    monitor.generated(1);
+                    if (!backward.seen.contains(parent) && next.add(parent)) {
+                        met |= forward.seen.contains(parent);
+                    } else {
+                        monitor.duplicates(1);
+                    }
+                }
+            }
+        }
+        backward.add(next);
+        return met;
+    }
+
+    /**
+     * {@return the goal states worth searching backwards from} Goal states
+     * with a piece hanging over the edge of the board cannot be reached from a
+     * state whose pieces all fit on the board.
+     */
+    private static long[] goalsReachableFrom(long start) {
+        var goals = PackedState.goals();
+        if (!PackedState.fitsOnBoard(start)) {
+            return goals;
+        }
+        return Arrays.stream(goals).filter(PackedState::fitsOnBoard).toArray();
+    }
+
+    /**
+     * Rebuilds the path with the lowest move codes among the shortest paths
+     * going through the layers of both sides.
+     */
+    private static int[] path(long start, Side forward, Side backward) {
+        var forwardDepth = forward.layers.size() - 1;
+        var length = forwardDepth + backward.layers.size() - 1;
+        // the states of the forward layers that lie on a shortest path
+        var onPath = new LongHashSet[forwardDepth + 1];
+        onPath[forwardDepth] = new LongHashSet();
+        for (var state : forward.layers.get(forwardDepth).toArray()) {
+            if (backward.layers.get(length - forwardDepth).contains(state)) {
+                onPath[forwardDepth].add(state);
+            }
+        }
+        for (var depth = forwardDepth - 1; depth >= 0; depth--) {
+            onPath[depth] = new LongHashSet();
+            for (var state : forward.layers.get(depth).toArray()) {
+                if (firstMoveInto(state, onPath[depth + 1]) >= 0) {
+                    onPath[depth].add(state);
+                }
+            }
+        }
+        var moves = new int[length];
+        var state = start;
+        for (var depth = 0; depth < length; depth++) {
+            var target = depth < forwardDepth ? onPath[depth + 1] : backward.layers.get(length - depth - 1);
+            moves[depth] = firstMoveInto(state, target);
+            state = PackedState.move(state, PackedState.tileOf(moves[depth]), PackedState.directionOf(moves[depth]));
+        }
+        return moves;
+    }
+
+    private static int firstMoveInto(long state, LongHashSet target) {
+        var moves = new int[PackedState.MOVES];
+        var count = MoveGenerator.successors(state, moves);
+        for (var i = 0; i < count; i++) {
+            if (target.contains(PackedState.move(state, moves[i]))) {
+                return moves[i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The layers grown from one side, layer {@code k} holding the states at
+     * distance {@code k} from that side.
+     */
+    private static class Side {
+
+        private final List<LongHashSet> layers = new ArrayList<>();
+
+        private final LongHashSet seen = new LongHashSet();
+
+        Side(long[] roots) {
+            var layer = new LongHashSet(roots.length);
+            for (var root : roots) {
+                layer.add(root);
+            }
+            add(layer);
+        }
+
+        LongHashSet last() {
+            return layers.get(layers.size() - 1);
+        }
+
+        void add(LongHashSet layer) {
+            layers.add(layer);
+            for (var state : layer.toArray()) {
+                seen.add(state);
+            }
+        }
+
+    }
+
+}
@@ -1,34 +1,115 @@
 package puzzle.solver;
 
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
 import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
 
-import java.util.Deque;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Optional;
 
-public class BreadthFirstSearch {
-
-    public Optional<Node> search(PuzzleState state) {
-        Deque<Node> open = new LinkedList<Node>();
-        var seen = new HashSet<Node>();
-        var start = new Node(state);
-        open.add(start);
-        seen.add(start);
-        while (! open.isEmpty()) {
-            var selected = open.pollFirst();
-            if (selected.getState().isGoal()) {
-                return Optional.of(selected);
-            }
-            while (selected.hasNextChild()) {
-                var nextChild = selected.nextChild().get();
-                if (! seen.contains(nextChild)) {
-                    open.offerLast(nextChild);
-                    seen.add(nextChild);
+public class BreadthFirstSearch implements Solver {
+
+    private long expandedCount;
+
+    private int peakFrontierSize;
+
+    private long frontierBytes;
+
+    private int arenaSize;
+
+    private long arenaBytes;
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var monitor = new SearchMonitor(this, state.getPacked());
+        var open = new Frontier();
+        var closed = new SearchArena();
+        var seen = new LongHashSet();
+        var moves = new int[PackedState.MOVES];
+        open.offer(state.getPacked(), SearchArena.NO_PARENT, 0);
+        seen.add(state.getPacked());
+        // the states of the current depth that are still in the frontier
+        var layerRemaining = 1;
+        var depth = 0;
+        monitor.layer(depth, 1);
+        try {
+            while (! open.isEmpty()) {
+                if (layerRemaining == 0) {
+                    layerRemaining = open.size();
+                    monitor.layer(++depth, layerRemaining);
+                }
+                layerRemaining--;
+                var slot = open.poll();
+                var packed = open.state(slot);
+                var id = closed.add(packed, open.parent(slot), open.move(slot));
+                if (PackedState.isGoal(packed)) {
+                    return finish(monitor, Optional.of(closed.toNode(id)), open, seen);
+                }
+                monitor.expanded();
+                var count = MoveGenerator.successors(packed, moves);
+                monitor.generated(count);
+                for (var i = 0; i < count; i++) {
+                    var child = PackedState.move(packed, moves[i]);
+                    if (seen.add(child)) {
+                        open.offer(child, id, moves[i]);
+                    } else {
+                        monitor.duplicates(1);
+                    }
                 }
             }
+            return finish(monitor, Optional.empty(), open, seen);
+        } finally {
+            expandedCount = monitor.expandedCount();
+            peakFrontierSize = open.peakSize();
+            frontierBytes = open.bytesUsed();
+            arenaSize = closed.size();
+            arenaBytes = closed.bytesUsed();
         }
-        return Optional.empty();
+    }
+
+    private static SearchResult finish(SearchMonitor monitor, Optional<Node> path, Frontier open, LongHashSet seen) {
+        monitor.frontierSize(open.peakSize());
+        monitor.visitedSize(seen.size());
+        return monitor.finish(path);
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * {@return the largest number of states waiting in the frontier during the
+     * last search}
+     */
+    public int getPeakFrontierSize() {
+        return peakFrontierSize;
+    }
+
+    /**
+     * {@return the number of bytes allocated for the frontier during the last
+     * search}
+     */
+    public long getFrontierBytes() {
+        return frontierBytes;
+    }
+
+    /**
+     * {@return the number of nodes stored in the search arena by the last
+     * search}
+     */
+    public int getArenaSize() {
+        return arenaSize;
+    }
+
+    /**
+     * {@return the number of bytes allocated for the search arena during the
+     * last search}
+     */
+    public long getArenaBytes() {
+        return arenaBytes;
     }
 
     public void printPathTo(Node node) {
@@ -38,11 +119,14 @@ public class BreadthFirstSearch {
 
     public static void main(String[] args) {
         var bfs = new BreadthFirstSearch();
-        var result = bfs.search(new PuzzleState());
-        result.ifPresentOrElse(
+        var result = bfs.solve(new PuzzleState());
+        result.path().ifPresentOrElse(
                 bfs::printPathTo,
                 () -> System.out.println("No solution found")
         );
+        System.out.println(result.statistics());
+        System.out.printf("Peak frontier: %d states, %d bytes%n", bfs.getPeakFrontierSize(), bfs.getFrontierBytes());
+        System.out.printf("Search arena: %d nodes, %d bytes%n", bfs.getArenaSize(), bfs.getArenaBytes());
     }
 
 }
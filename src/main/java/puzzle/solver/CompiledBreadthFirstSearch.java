@@ -0,0 +1,83 @@
+package puzzle.solver;
+
+import puzzle.model.CompiledPuzzle;
+import puzzle.util.LongHashSet;
+
+import java.util.Optional;
+
+/**
+ * Breadth-first search over a puzzle read from a definition. It works like
+ * {@link BreadthFirstSearch}, with the legality of moves, the moves
+ * themselves and the goal test answered by the tables of a
+ * {@link CompiledPuzzle}.
+ */
+public class CompiledBreadthFirstSearch {
+
+    private final CompiledPuzzle puzzle;
+
+    private long expandedCount;
+
+    /**
+     * Creates a solver of the puzzle specified.
+     *
+     * @param puzzle a compiled puzzle
+     */
+    public CompiledBreadthFirstSearch(CompiledPuzzle puzzle) {
+        this.puzzle = puzzle;
+    }
+
+    /**
+     * Searches for a shortest path from the initial state of the puzzle to a
+     * goal state.
+     *
+     * @return the codes of the moves of the path, or an empty
+     * {@code Optional} if no goal state is reachable
+     */
+    public Optional<int[]> search() {
+        return search(puzzle.start());
+    }
+
+    /**
+     * Searches for a shortest path from the packed state specified to a goal
+     * state. Among the shortest paths the one with the lowest move codes is
+     * returned.
+     *
+     * @param start a packed state of the puzzle
+     * @return the codes of the moves of the path, or an empty
+     * {@code Optional} if no goal state is reachable
+     */
+    public Optional<int[]> search(long start) {
+        var open = new Frontier();
+        var closed = new SearchArena();
+        var seen = new LongHashSet();
+        var moves = new int[puzzle.moves()];
+        open.offer(start, SearchArena.NO_PARENT, 0);
+        seen.add(start);
+        expandedCount = 0;
+        while (!open.isEmpty()) {
+            var slot = open.poll();
+            var state = open.state(slot);
+            var id = closed.add(state, open.parent(slot), open.move(slot));
+            if (puzzle.isGoal(state)) {
+                return Optional.of(closed.path(id));
+            }
+            expandedCount++;
+            var count = puzzle.successors(state, moves);
+            for (var i = 0; i < count; i++) {
+                var child = puzzle.move(state, moves[i]);
+                if (seen.add(child)) {
+                    open.offer(child, id, moves[i]);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+}
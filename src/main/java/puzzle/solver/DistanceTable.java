@@ -0,0 +1,202 @@
+package puzzle.solver;
+
+import puzzle.model.Direction;
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The exact number of moves from every state to the nearest goal state,
+ * computed once by retrograde analysis: a breadth-first search that starts
+ * from all the goal states at once and follows the moves backwards.
+ *
+ * <p>Distances are stored in a byte array indexed by the rank of the packed
+ * state, that is, the cell indices of the pieces read as the digits of a
+ * base-{@value PackedState#CELLS} number. Both the distance and the optimal
+ * next move of a state are then answered without searching. Tables can be
+ * saved to and memory-mapped from files, see {@link DistanceTableFile}.
+ */
+public class DistanceTable {
+
+    /**
+     * The distance of the states from which no goal state can be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * The number of entries of a table, one for every placement of the pieces.
+     */
+    public static final int SIZE = (int) Math.pow(PackedState.CELLS, PackedState.PIECES);
+
+    private static final byte UNKNOWN = (byte) 0xFF;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final ByteBuffer distances;
+
+    private final int reachableCount;
+
+    private final int maxDistance;
+
+    private DistanceTable(ByteBuffer distances, int reachableCount, int maxDistance) {
+        this.distances = distances;
+        this.reachableCount = reachableCount;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * {@return a new table holding the distance of every state from which a
+     * goal state can be reached}
+     */
+    public static DistanceTable build() {
+        var distances = new byte[SIZE];
+        Arrays.fill(distances, UNKNOWN);
+        var layer = PackedState.goals();
+        for (var goal : layer) {
+            distances[index(goal)] = 0;
+        }
+        var reachableCount = layer.length;
+        var distance = 0;
+        var next = new long[1 << 10];
+        while (true) {
+            var size = 0;
+            for (var state : layer) {
+                for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                    for (var direction : DIRECTIONS) {
+                        var parent = PackedState.predecessor(state, tile, direction);
+                        if (parent >= 0 && distances[index(parent)] == UNKNOWN) {
+                            distances[index(parent)] = (byte) (distance + 1);
+                            if (size == next.length) {
+                                next = Arrays.copyOf(next, size << 1);
+                            }
+                            next[size++] = parent;
+                        }
+                    }
+                }
+            }
+            if (size == 0) {
+                break;
+            }
+            if (++distance == 0xFF) {
+                throw new IllegalStateException("Distance does not fit in a byte");
+            }
+            reachableCount += size;
+            layer = Arrays.copyOf(next, size);
+        }
+        return new DistanceTable(ByteBuffer.wrap(distances), reachableCount, distance);
+    }
+
+    /**
+     * Writes the table to a file in the format described by
+     * {@link DistanceTableFile}. The file is written next to its final place
+     * and moved there once complete, so readers never see a partial file.
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(Path path) throws IOException {
+        DistanceTableFile.write(path, distances.duplicate(), reachableCount, maxDistance);
+    }
+
+    /**
+     * {@return a table backed by a memory-mapped file written by
+     * {@link #writeTo(Path)}} The entries are not copied to the heap: lookups
+     * read the mapped pages directly, which the operating system shares
+     * between all the processes mapping the same file.
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs, or the file is not a table
+     * of this version or of this board and set of pieces
+     */
+    public static DistanceTable map(Path path) throws IOException {
+        var header = DistanceTableFile.readHeader(path);
+        return new DistanceTable(DistanceTableFile.map(path), header.reachableCount(), header.maxDistance());
+    }
+
+    /**
+     * {@return the table mapped from the file specified, building and writing
+     * the table first if the file is missing or stale}
+     *
+     * @param path the path of the file
+     * @throws IOException if an I/O error occurs
+     */
+    public static DistanceTable mapOrBuild(Path path) throws IOException {
+        try {
+            return map(path);
+        } catch (NoSuchFileException | StaleTableException e) {
+            build().writeTo(path);
+            return map(path);
+        }
+    }
+
+    /**
+     * {@return the index of the entry of the packed state}
+     *
+     * @param state a packed state
+     */
+    static int index(long state) {
+        var index = 0;
+        for (var tile = PackedState.PIECES - 1; tile >= 0; tile--) {
+            index = index * PackedState.CELLS + PackedState.cell(state, tile);
+        }
+        return index;
+    }
+
+    /**
+     * {@return the number of moves from the state to the nearest goal state,
+     * or {@link #UNREACHABLE} if no goal state can be reached}
+     *
+     * @param state a packed state
+     */
+    public int distance(long state) {
+        if (!PackedState.isValid(state)) {
+            return UNREACHABLE;
+        }
+        var distance = distances.get(index(state));
+        return distance == UNKNOWN ? UNREACHABLE : distance & 0xFF;
+    }
+
+    /**
+     * {@return the code of the first move of an optimal solution, or
+     * {@code -1} if the state is a goal state or no goal state can be reached}
+     * When several moves are optimal, the one with the lowest code is chosen,
+     * so following this move leads along the same path that
+     * {@link BreadthFirstSearch} finds.
+     *
+     * @param state a packed state
+     */
+    public int nextMove(long state) {
+        var distance = distance(state);
+        if (distance <= 0) {
+            return -1;
+        }
+        var moves = new int[PackedState.MOVES];
+        var count = MoveGenerator.successors(state, moves);
+        for (var i = 0; i < count; i++) {
+            if (distance(PackedState.move(state, moves[i])) == distance - 1) {
+                return moves[i];
+            }
+        }
+        throw new IllegalStateException("Inconsistent table");
+    }
+
+    /**
+     * {@return the number of states from which a goal state can be reached}
+     */
+    public int getReachableCount() {
+        return reachableCount;
+    }
+
+    /**
+     * {@return the largest distance in the table}
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+}
@@ -0,0 +1,160 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The binary file format of a {@link DistanceTable}. A file consists of a
+ * fixed-size header followed by the entries, one byte per entry in index
+ * order, exactly as they are held in memory so that they can be mapped
+ * without decoding.
+ *
+ * <p>The header holds, in big-endian order:
+ * <ul>
+ *     <li>the magic number {@code "PZDT"},</li>
+ *     <li>the format version,</li>
+ *     <li>the height and the width of the board,</li>
+ *     <li>the number of pieces,</li>
+ *     <li>the checksum of the piece set, see {@link #pieceSetChecksum()},</li>
+ *     <li>the number of entries,</li>
+ *     <li>the number of reachable states and the largest distance,</li>
+ * </ul>
+ * padded with zeros to {@value #HEADER_SIZE} bytes. A file whose header does
+ * not match the running code is stale and is rejected with a
+ * {@link StaleTableException}.
+ */
+final class DistanceTableFile {
+
+    static final int MAGIC = 0x505A4454; // "PZDT"
+
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * The header of a table file.
+     *
+     * @param reachableCount the number of states from which a goal state can
+     *                       be reached
+     * @param maxDistance the largest distance in the table
+     */
+    record Header(int reachableCount, int maxDistance) {
+    }
+
+    private DistanceTableFile() {
+    }
+
+    /**
+     * {@return the checksum of everything the entries of a table depend on}
+     * These are the dimensions of the board, the indices of the pieces, the
+     * cells covered by each piece and the goal states.
+     */
+    static long pieceSetChecksum() {
+        var buffer = ByteBuffer.allocate(256);
+        buffer.putInt(PuzzleState.BOARD_HEIGHT).putInt(PuzzleState.BOARD_WIDTH);
+        buffer.putInt(PuzzleState.SQUARE).putInt(PuzzleState.TOPLEFT).putInt(PuzzleState.TOPRIGHT)
+                .putInt(PuzzleState.BOTTOMLEFT).putInt(PuzzleState.BOTTOMRIGHT);
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            var shape = 0;
+            for (var bit = 0; bit < 4; bit++) {
+                if (PackedState.covers(0L, tile, bit >> 1, bit & 1)) {
+                    shape |= 1 << bit;
+                }
+            }
+            buffer.put((byte) shape);
+        }
+        for (var goal : PackedState.goals()) {
+            buffer.putLong(goal);
+        }
+        var crc = new CRC32();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * Writes a table file to a temporary file in the same directory, then
+     * moves it to the path specified.
+     */
+    static void write(Path path, ByteBuffer entries, int reachableCount, int maxDistance) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(PuzzleState.BOARD_HEIGHT)
+                .putInt(PuzzleState.BOARD_WIDTH)
+                .putInt(PackedState.PIECES)
+                .putLong(pieceSetChecksum())
+                .putInt(DistanceTable.SIZE)
+                .putInt(reachableCount)
+                .putInt(maxDistance);
+        header.clear();
+        var directory = path.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                entries.clear();
+                while (header.hasRemaining() || entries.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, entries});
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * {@return the header of the table file specified}
+     *
+     * @throws StaleTableException if the file is not a table file of this
+     * version or of this board and piece set
+     */
+    static Header readHeader(Path path) throws IOException {
+        var header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading until the header is complete or the file ends
+            }
+            if (header.hasRemaining()) {
+                throw new StaleTableException("Truncated header: " + path);
+            }
+            header.flip();
+            check(header.getInt() == MAGIC, "Not a distance table", path);
+            check(header.getInt() == VERSION, "Unsupported version", path);
+            check(header.getInt() == PuzzleState.BOARD_HEIGHT, "Board height differs", path);
+            check(header.getInt() == PuzzleState.BOARD_WIDTH, "Board width differs", path);
+            check(header.getInt() == PackedState.PIECES, "Number of pieces differs", path);
+            check(header.getLong() == pieceSetChecksum(), "Piece set differs", path);
+            check(header.getInt() == DistanceTable.SIZE, "Number of entries differs", path);
+            check(channel.size() == HEADER_SIZE + (long) DistanceTable.SIZE, "Truncated entries", path);
+            return new Header(header.getInt(), header.getInt());
+        }
+    }
+
+    /**
+     * {@return the entries of the table file specified mapped read-only into
+     * memory} The mapping stays valid after the channel is closed.
+     */
+    static ByteBuffer map(Path path) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, DistanceTable.SIZE);
+        }
+    }
+
+    private static void check(boolean condition, String message, Path path) throws StaleTableException {
+        if (!condition) {
+            throw new StaleTableException(message + ": " + path);
+        }
+    }
+
+}
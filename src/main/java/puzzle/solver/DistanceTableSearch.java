@@ -0,0 +1,58 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.Optional;
+
+/**
+ * Solves the puzzle by walking a {@link DistanceTable}: each step takes the
+ * optimal next move stored in the table, so no search is needed once the
+ * table is built.
+ */
+public class DistanceTableSearch implements Solver {
+
+    private final DistanceTable table;
+
+    /**
+     * Creates a solver that builds its own table.
+     */
+    public DistanceTableSearch() {
+        this(DistanceTable.build());
+    }
+
+    /**
+     * Creates a solver using the table specified.
+     *
+     * @param table a distance table
+     */
+    public DistanceTableSearch(DistanceTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var start = state.getPacked();
+        var monitor = new SearchMonitor(this, start);
+        var distance = table.distance(start);
+        if (distance == DistanceTable.UNREACHABLE) {
+            return monitor.finish(Optional.empty());
+        }
+        var moves = new int[distance];
+        var current = start;
+        for (var i = 0; i < distance; i++) {
+            monitor.expanded();
+            moves[i] = table.nextMove(current);
+            current = PackedState.move(current, PackedState.tileOf(moves[i]), PackedState.directionOf(moves[i]));
+        }
+        return monitor.finish(Optional.of(Node.of(start, moves)));
+    }
+
+    /**
+     * {@return the table the solver walks}
+     */
+    public DistanceTable getTable() {
+        return table;
+    }
+
+}
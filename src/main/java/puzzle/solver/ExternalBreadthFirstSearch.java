@@ -0,0 +1,502 @@
+package puzzle.solver;
+
+import puzzle.model.CompiledPuzzle;
+import puzzle.model.PuzzleDefinition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Breadth-first search that keeps its layers on disk, for puzzles whose state
+ * space does not fit in memory. There is no visited set: duplicates are
+ * detected late, when a layer is complete.
+ *
+ * <p>Each layer is a file of packed states in increasing order without
+ * duplicates. The successors of a layer are collected in a buffer of the
+ * configured size, which is sorted and written as a run whenever it fills
+ * up. The runs are then merged, and the states of the next layer are the
+ * merged successors that are in no earlier layer, which is found by reading
+ * the sorted streams side by side. When every piece of the start state fits
+ * on the board, every move can be undone, see
+ * {@link CompiledPuzzle#fitsOnBoard(long)}, so a successor of depth {@code d}
+ * is either at depth {@code d - 1}, {@code d} or {@code d + 1} and only the
+ * two last layers are compared. Otherwise, a piece hanging over the edge can
+ * move onto the board but not back and a successor may be at any smaller
+ * depth, so the layers before the two last ones are also merged into a
+ * single sorted file after each layer, which is compared as well. Either
+ * way at most three sorted streams are read side by side, so memory use is
+ * bounded by the buffer and the read and write buffers of the open files,
+ * whatever the depth.
+ *
+ * <p>The path to a goal state is rebuilt backwards from the layer files:
+ * going back one layer reads that layer once, looking for one of the
+ * predecessors of the current state.
+ */
+public class ExternalBreadthFirstSearch {
+
+    /**
+     * The number of states buffered by default before a run is written.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * The largest number of runs merged at once.
+     */
+    private static final int MERGE_FAN_IN = 64;
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private final CompiledPuzzle puzzle;
+
+    private final Path directory;
+
+    private final int bufferSize;
+
+    private long[] layerSizes = new long[0];
+
+    private long runCount;
+
+    private long bytesWritten;
+
+    /**
+     * Creates a solver with the default buffer size.
+     *
+     * @param puzzle the puzzle to solve
+     * @param directory the directory of the temporary files
+     */
+    public ExternalBreadthFirstSearch(CompiledPuzzle puzzle, Path directory) {
+        this(puzzle, directory, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a solver.
+     *
+     * @param puzzle the puzzle to solve
+     * @param directory the directory of the temporary files
+     * @param bufferSize the number of states sorted in memory at once
+     * @throws IllegalArgumentException if the buffer cannot hold the
+     * successors of a state
+     */
+    public ExternalBreadthFirstSearch(CompiledPuzzle puzzle, Path directory, int bufferSize) {
+        if (bufferSize < puzzle.moves()) {
+            throw new IllegalArgumentException("The buffer must hold at least " + puzzle.moves() + " states");
+        }
+        this.puzzle = puzzle;
+        this.directory = directory;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Searches for a shortest path from the packed state specified to a goal
+     * state.
+     *
+     * @param start the packed state to start from
+     * @return the codes of the moves of the path, or an empty
+     * {@code Optional} if no goal state is reachable
+     * @throws IOException if an I/O error occurs
+     */
+    public Optional<int[]> search(long start) throws IOException {
+        return run(start, true);
+    }
+
+    /**
+     * Visits every state reachable from the packed state specified. Only the
+     * last two layers are kept on disk, and if the state does not fit on the
+     * board, the file of the states of the earlier layers.
+     *
+     * @param start the packed state to start from
+     * @return the number of states at each depth
+     * @throws IOException if an I/O error occurs
+     */
+    public long[] sweep(long start) throws IOException {
+        run(start, false);
+        return getLayerSizes();
+    }
+
+    /**
+     * {@return the number of states at each depth reached by the last search}
+     */
+    public long[] getLayerSizes() {
+        return layerSizes.clone();
+    }
+
+    /**
+     * {@return the number of sorted runs written by the last search}
+     */
+    public long getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * {@return the number of bytes written to disk by the last search}
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private Optional<int[]> run(long start, boolean stopAtGoal) throws IOException {
+        runCount = 0;
+        bytesWritten = 0;
+        var sizes = new ArrayList<Long>();
+        var layers = new ArrayList<Path>();
+        var files = new ArrayList<Path>();
+        var reversible = puzzle.fitsOnBoard(start);
+        // the states of the layers before the two last ones, unless every
+        // move can be undone
+        Path older = null;
+        try {
+            var first = createFile(files);
+            try (var out = new StateWriter(first)) {
+                out.write(start);
+            }
+            layers.add(first);
+            sizes.add(1L);
+            if (stopAtGoal && puzzle.isGoal(start)) {
+                return Optional.of(new int[0]);
+            }
+            while (true) {
+                var depth = layers.size() - 1;
+                var runs = expand(layers.get(depth), files);
+                var merged = merge(runs, files);
+                var next = createFile(files);
+                var seen = new ArrayList<Path>();
+                if (older != null) {
+                    seen.add(older);
+                }
+                if (depth > 0) {
+                    seen.add(layers.get(depth - 1));
+                }
+                seen.add(layers.get(depth));
+                var goal = subtract(merged, seen, next);
+                delete(merged, files);
+                var size = Files.size(next) / Long.BYTES;
+                if (size == 0) {
+                    return Optional.empty();
+                }
+                layers.add(next);
+                sizes.add(size);
+                if (stopAtGoal && goal.isPresent()) {
+                    return Optional.of(path(layers, goal.get()));
+                }
+                if (depth > 0) {
+                    if (!reversible) {
+                        var union = createFile(files);
+                        var previous = layers.get(depth - 1);
+                        mergeGroup(older == null ? List.of(previous) : List.of(older, previous), union);
+                        if (older != null) {
+                            delete(older, files);
+                        }
+                        older = union;
+                    }
+                    if (!stopAtGoal) {
+                        delete(layers.get(depth - 1), files);
+                    }
+                }
+            }
+        } finally {
+            layerSizes = sizes.stream().mapToLong(Long::longValue).toArray();
+            for (var file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Writes the successors of the states of the layer as sorted runs.
+     */
+    private List<Path> expand(Path layer, List<Path> files) throws IOException {
+        var runs = new ArrayList<Path>();
+        var buffer = new long[bufferSize];
+        var size = 0;
+        var moves = new int[puzzle.moves()];
+        try (var in = new StateReader(layer)) {
+            while (in.hasNext()) {
+                var state = in.next();
+                if (size + moves.length > buffer.length) {
+                    runs.add(writeRun(buffer, size, files));
+                    size = 0;
+                }
+                var count = puzzle.successors(state, moves);
+                for (var i = 0; i < count; i++) {
+                    buffer[size++] = puzzle.move(state, moves[i]);
+                }
+            }
+        }
+        if (size > 0 || runs.isEmpty()) {
+            runs.add(writeRun(buffer, size, files));
+        }
+        return runs;
+    }
+
+    private Path writeRun(long[] buffer, int size, List<Path> files) throws IOException {
+        Arrays.sort(buffer, 0, size);
+        var run = createFile(files);
+        try (var out = new StateWriter(run)) {
+            for (var i = 0; i < size; i++) {
+                out.writeUnique(buffer[i]);
+            }
+        }
+        runCount++;
+        return run;
+    }
+
+    /**
+     * Merges the runs into a single sorted file without duplicates, at most
+     * {@link #MERGE_FAN_IN} runs at a time. The runs are deleted.
+     */
+    private Path merge(List<Path> runs, List<Path> files) throws IOException {
+        var pending = new ArrayList<>(runs);
+        while (pending.size() > 1) {
+            var merged = new ArrayList<Path>();
+            for (var from = 0; from < pending.size(); from += MERGE_FAN_IN) {
+                var group = pending.subList(from, Math.min(from + MERGE_FAN_IN, pending.size()));
+                var out = createFile(files);
+                mergeGroup(group, out);
+                for (var run : group) {
+                    delete(run, files);
+                }
+                merged.add(out);
+            }
+            pending = merged;
+        }
+        return pending.get(0);
+    }
+
+    private void mergeGroup(List<Path> group, Path target) throws IOException {
+        var readers = new ArrayList<StateReader>();
+        try (var out = new StateWriter(target)) {
+            var queue = new PriorityQueue<StateReader>((a, b) -> Long.compare(a.peek(), b.peek()));
+            for (var run : group) {
+                var reader = new StateReader(run);
+                readers.add(reader);
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+            }
+            while (!queue.isEmpty()) {
+                var reader = queue.poll();
+                out.writeUnique(reader.next());
+                if (reader.hasNext()) {
+                    queue.add(reader);
+                }
+            }
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Writes the candidates that are in none of the layers to the target,
+     * returning the first goal state written.
+     */
+    private Optional<Long> subtract(Path candidates, List<Path> layers, Path target) throws IOException {
+        Optional<Long> goal = Optional.empty();
+        var readers = new ArrayList<StateReader>();
+        try (var in = new StateReader(candidates);
+             var out = new StateWriter(target)) {
+            for (var layer : layers) {
+                readers.add(new StateReader(layer));
+            }
+            while (in.hasNext()) {
+                var state = in.next();
+                if (!skipTo(readers, state)) {
+                    out.write(state);
+                    if (goal.isEmpty() && puzzle.isGoal(state)) {
+                        goal = Optional.of(state);
+                    }
+                }
+            }
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+        }
+        return goal;
+    }
+
+    /**
+     * Advances the readers past the states less than the state specified,
+     * returning whether the next state of one of them equals it.
+     */
+    private static boolean skipTo(List<StateReader> readers, long state) throws IOException {
+        var found = false;
+        for (var reader : readers) {
+            found |= skipTo(reader, state);
+        }
+        return found;
+    }
+
+    /**
+     * Advances the reader past the states less than the state specified,
+     * returning whether the next state equals it.
+     */
+    private static boolean skipTo(StateReader reader, long state) throws IOException {
+        while (reader.hasNext() && reader.peek() < state) {
+            reader.next();
+        }
+        return reader.hasNext() && reader.peek() == state;
+    }
+
+    /**
+     * {@return the moves leading to the state of the last layer specified}
+     */
+    private int[] path(List<Path> layers, long goal) throws IOException {
+        var depth = layers.size() - 1;
+        var moves = new int[depth];
+        var predecessors = new int[puzzle.moves()];
+        var state = goal;
+        for (var k = depth; k > 0; k--) {
+            var count = puzzle.predecessors(state, predecessors);
+            var candidates = new long[count];
+            for (var i = 0; i < count; i++) {
+                candidates[i] = puzzle.move(state, predecessors[i] ^ 2);
+            }
+            Arrays.sort(candidates);
+            var parent = findFirst(layers.get(k - 1), candidates);
+            moves[k - 1] = moveBetween(parent, state);
+            state = parent;
+        }
+        return moves;
+    }
+
+    private static long findFirst(Path layer, long[] candidates) throws IOException {
+        try (var in = new StateReader(layer)) {
+            while (in.hasNext()) {
+                var state = in.next();
+                if (Arrays.binarySearch(candidates, state) >= 0) {
+                    return state;
+                }
+            }
+        }
+        throw new IllegalStateException("No parent in layer " + layer);
+    }
+
+    private int moveBetween(long parent, long child) {
+        var moves = new int[puzzle.moves()];
+        var count = puzzle.successors(parent, moves);
+        for (var i = 0; i < count; i++) {
+            if (puzzle.move(parent, moves[i]) == child) {
+                return moves[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private Path createFile(List<Path> files) throws IOException {
+        var file = Files.createTempFile(directory, "bfs-", ".states");
+        files.add(file);
+        return file;
+    }
+
+    private static void delete(Path file, List<Path> files) throws IOException {
+        Files.deleteIfExists(file);
+        files.remove(file);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var definition = args.length > 0 ? PuzzleDefinition.load(Path.of(args[0])) : PuzzleDefinition.defaultDefinition();
+        var directory = Path.of(args.length > 1 ? args[1] : System.getProperty("java.io.tmpdir"));
+        var bufferSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BUFFER_SIZE;
+        var puzzle = CompiledPuzzle.compile(definition);
+        var solver = new ExternalBreadthFirstSearch(puzzle, directory, bufferSize);
+        var sizes = solver.sweep(puzzle.start());
+        for (var depth = 0; depth < sizes.length; depth++) {
+            System.out.printf("%d\t%d%n", depth, sizes[depth]);
+        }
+        System.out.printf("%d states, %d runs, %d bytes written%n",
+                Arrays.stream(sizes).sum(), solver.getRunCount(), solver.getBytesWritten());
+    }
+
+    /**
+     * Reads the packed states of a file in order.
+     */
+    private static class StateReader implements AutoCloseable {
+
+        private final DataInputStream in;
+
+        private long remaining;
+
+        private long next;
+
+        StateReader(Path file) throws IOException {
+            remaining = Files.size(file) / Long.BYTES;
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_SIZE));
+            if (remaining > 0) {
+                next = in.readLong();
+            }
+        }
+
+        boolean hasNext() {
+            return remaining > 0;
+        }
+
+        long peek() {
+            return next;
+        }
+
+        long next() throws IOException {
+            var state = next;
+            if (--remaining > 0) {
+                next = in.readLong();
+            }
+            return state;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+    }
+
+    /**
+     * Writes packed states to a file.
+     */
+    private class StateWriter implements AutoCloseable {
+
+        private final DataOutputStream out;
+
+        private long count;
+
+        private long last;
+
+        StateWriter(Path file) throws IOException {
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_SIZE));
+        }
+
+        void write(long state) throws IOException {
+            out.writeLong(state);
+            count++;
+            last = state;
+        }
+
+        /**
+         * Writes the state unless it equals the last one written.
+         */
+        void writeUnique(long state) throws IOException {
+            if (count == 0 || state != last) {
+                write(state);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            bytesWritten += count * Long.BYTES;
+            out.close();
+        }
+
+    }
+
+}
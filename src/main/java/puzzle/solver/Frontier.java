@@ -0,0 +1,177 @@
+package puzzle.solver;
+
+/**
+ * A first-in-first-out queue of packed states backed by parallel primitive
+ * arrays used as a growable ring buffer. Each entry holds a packed state, the
+ * id of its parent and the code of the move that produced it.
+ */
+public class Frontier {
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private static final int ENTRY_BYTES = Long.BYTES + Integer.BYTES + Byte.BYTES;
+
+    private long[] states;
+
+    private int[] parents;
+
+    private byte[] moves;
+
+    private int head;
+
+    private int size;
+
+    private int peakSize;
+
+    /**
+     * Creates an empty frontier with the default initial capacity.
+     */
+    public Frontier() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty frontier with the initial capacity specified.
+     *
+     * @param capacity the initial capacity, it is rounded up to a power of two
+     */
+    public Frontier(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException();
+        }
+        var rounded = Integer.highestOneBit(capacity);
+        allocate(rounded < capacity ? rounded << 1 : rounded);
+    }
+
+    /**
+     * Appends an entry to the tail of the frontier.
+     *
+     * @param state a packed state
+     * @param parent the id of the parent of the state
+     * @param move the code of the move that produced the state
+     */
+    public void offer(long state, int parent, int move) {
+        if (size == states.length) {
+            grow();
+        }
+        var slot = (head + size) & (states.length - 1);
+        states[slot] = state;
+        parents[slot] = parent;
+        moves[slot] = (byte) move;
+        if (++size > peakSize) {
+            peakSize = size;
+        }
+    }
+
+    /**
+     * Removes the entry at the head of the frontier and returns its slot. The
+     * slot can be passed to {@link #state(int)}, {@link #parent(int)} and
+     * {@link #move(int)} until the next call of {@link #offer(long, int, int)}.
+     *
+     * @return the slot of the removed entry
+     * @throws IllegalStateException if the frontier is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Frontier is empty");
+        }
+        var slot = head;
+        head = (head + 1) & (states.length - 1);
+        size--;
+        return slot;
+    }
+
+    /**
+     * {@return the packed state of the entry in the slot specified}
+     *
+     * @param slot a slot returned by {@link #poll()}
+     */
+    public long state(int slot) {
+        return states[slot];
+    }
+
+    /**
+     * {@return the parent id of the entry in the slot specified}
+     *
+     * @param slot a slot returned by {@link #poll()}
+     */
+    public int parent(int slot) {
+        return parents[slot];
+    }
+
+    /**
+     * {@return the move code of the entry in the slot specified}
+     *
+     * @param slot a slot returned by {@link #poll()}
+     */
+    public int move(int slot) {
+        return moves[slot];
+    }
+
+    /**
+     * {@return whether the frontier has no entries}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of entries in the frontier}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the largest number of entries the frontier has held at once}
+     */
+    public int peakSize() {
+        return peakSize;
+    }
+
+    /**
+     * {@return the number of entries that fit in the frontier without growing}
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * {@return the number of bytes occupied by the arrays of the frontier}
+     */
+    public long bytesUsed() {
+        return (long) states.length * ENTRY_BYTES;
+    }
+
+    private void grow() {
+        if (states.length == 1 << 30) {
+            throw new IllegalStateException("Frontier is full");
+        }
+        var oldStates = states;
+        var oldParents = parents;
+        var oldMoves = moves;
+        allocate(oldStates.length << 1);
+        // unwrap the ring so that the entries start at index zero again
+        var first = oldStates.length - head;
+        System.arraycopy(oldStates, head, states, 0, first);
+        System.arraycopy(oldStates, 0, states, first, head);
+        System.arraycopy(oldParents, head, parents, 0, first);
+        System.arraycopy(oldParents, 0, parents, first, head);
+        System.arraycopy(oldMoves, head, moves, 0, first);
+        System.arraycopy(oldMoves, 0, moves, first, head);
+        head = 0;
+    }
+
+    private void allocate(int capacity) {
+        states = new long[capacity];
+        parents = new int[capacity];
+        moves = new byte[capacity];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Frontier[size=%d, peak=%d, capacity=%d, bytes=%d]",
+                size, peakSize, states.length, bytesUsed());
+    }
+
+}
@@ -0,0 +1,18 @@
+package puzzle.solver;
+
+/**
+ * An estimate of the number of moves needed to reach a goal state from a
+ * packed state. Informed solvers only return optimal solutions with
+ * admissible heuristics, that is, ones that never overestimate.
+ */
+@FunctionalInterface
+public interface Heuristic {
+
+    /**
+     * {@return the estimated number of moves from the state to a goal state}
+     *
+     * @param state a packed state
+     */
+    int estimate(long state);
+
+}
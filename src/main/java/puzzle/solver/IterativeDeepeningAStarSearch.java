@@ -0,0 +1,150 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Iterative deepening A* search: repeated depth-first searches that prune
+ * every state whose estimated path length exceeds a threshold, raising the
+ * threshold to the smallest pruned estimate after each round. Memory use is
+ * proportional to the length of the path only.
+ *
+ * <p>With an admissible heuristic the path found is a shortest one, and as
+ * the moves are tried in the order of their codes it is the same path that
+ * {@link BreadthFirstSearch} finds.
+ */
+public class IterativeDeepeningAStarSearch implements Solver {
+
+    private static final int FOUND = -1;
+
+    private final Heuristic heuristic;
+
+    private long[] path = new long[64];
+
+    private int[] moves = new int[64];
+
+    // the legal moves of the states on the path, one reusable array per depth
+    private int[][] successors = new int[64][];
+
+    private int length;
+
+    private long expandedCount;
+
+    // the monitor of the search in progress
+    private SearchMonitor monitor;
+
+    /**
+     * Creates a solver guided by the {@link ManhattanHeuristic}.
+     */
+    public IterativeDeepeningAStarSearch() {
+        this(new ManhattanHeuristic());
+    }
+
+    /**
+     * Creates a solver guided by the heuristic specified.
+     *
+     * @param heuristic an admissible heuristic
+     */
+    public IterativeDeepeningAStarSearch(Heuristic heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var start = state.getPacked();
+        monitor = new SearchMonitor(this, start);
+        try {
+            return monitor.finish(search(start));
+        } finally {
+            expandedCount = monitor.expandedCount();
+            monitor = null;
+        }
+    }
+
+    private Optional<Node> search(long start) {
+        path[0] = start;
+        var threshold = heuristic.estimate(start);
+        while (true) {
+            var expanded = monitor.expandedCount();
+            var next = search(0, threshold);
+            // a round is reported once it is over, with the states it expanded
+            monitor.layer(threshold, monitor.expandedCount() - expanded);
+            if (next == FOUND) {
+                return Optional.of(Node.of(start, Arrays.copyOf(moves, length)));
+            }
+            if (next == Integer.MAX_VALUE) {
+                return Optional.empty();
+            }
+            threshold = next;
+        }
+    }
+
+    /**
+     * {@return the number of states expanded by the last search, counting
+     * every round}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * Searches depth-first below the state at the depth given.
+     *
+     * @return {@code FOUND} if a goal state was reached, otherwise the
+     * smallest estimate that exceeded the threshold
+     */
+    private int search(int depth, int threshold) {
+        var state = path[depth];
+        var estimate = depth + heuristic.estimate(state);
+        if (estimate > threshold) {
+            return estimate;
+        }
+        if (PackedState.isGoal(state)) {
+            length = depth;
+            return FOUND;
+        }
+        monitor.expanded();
+        monitor.frontierSize(depth + 1);
+        if (depth + 1 == path.length) {
+            path = Arrays.copyOf(path, path.length << 1);
+            moves = Arrays.copyOf(moves, moves.length << 1);
+            successors = Arrays.copyOf(successors, successors.length << 1);
+        }
+        if (successors[depth] == null) {
+            successors[depth] = new int[PackedState.MOVES];
+        }
+        var min = Integer.MAX_VALUE;
+        var successors = this.successors[depth];
+        var count = MoveGenerator.successors(state, successors);
+        monitor.generated(count);
+        for (var i = 0; i < count; i++) {
+            var child = PackedState.move(state, successors[i]);
+            if (isOnPath(child, depth)) {
+                monitor.duplicates(1);
+                continue;
+            }
+            path[depth + 1] = child;
+            moves[depth] = successors[i];
+            var next = search(depth + 1, threshold);
+            if (next == FOUND) {
+                return FOUND;
+            }
+            min = Math.min(min, next);
+        }
+        return min;
+    }
+
+    private boolean isOnPath(long state, int depth) {
+        for (var i = depth - 1; i >= 0; i--) {
+            if (path[i] == state) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
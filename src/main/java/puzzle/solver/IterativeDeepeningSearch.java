@@ -0,0 +1,184 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Iterative deepening depth-first search whose memory use is bounded by
+ * configuration rather than by the puzzle: besides the states on the current
+ * path, it only keeps a {@link TranspositionTable} of fixed size.
+ *
+ * <p>Every depth-first search returns a lower bound on the distance of its
+ * state to a goal state: zero for a goal state, one plus the smallest bound
+ * of its successors otherwise. The bounds are stored in the table, and a
+ * state whose bound exceeds the remaining depth is not expanded again, which
+ * cuts off the transpositions and cycles that plain iterative deepening
+ * explores over and over. A bound only depends on the state, never on the
+ * path that led to it, so it stays valid for the whole search, and the next
+ * round can start at the bound of the start state rather than one deeper.
+ * The path found is a shortest one; how much work is saved depends on the
+ * size of the table, but never its correctness.
+ */
+public class IterativeDeepeningSearch implements Solver {
+
+    /**
+     * The base two logarithm of the number of entries of the table used by
+     * default, which takes 10 MiB.
+     */
+    public static final int DEFAULT_TABLE_BITS = 20;
+
+    private static final int FOUND = -1;
+
+    // the bound of states from which no goal state is reachable
+    private static final int UNREACHABLE = Byte.MAX_VALUE;
+
+    private final TranspositionTable table;
+
+    private long[] path = new long[64];
+
+    private int[] moves = new int[64];
+
+    // the legal moves of the states on the path, one reusable array per depth
+    private int[][] successors = new int[64][];
+
+    private int length;
+
+    private long expandedCount;
+
+    // the monitor of the search in progress
+    private SearchMonitor monitor;
+
+    /**
+     * Creates a solver with a table of the default size.
+     */
+    public IterativeDeepeningSearch() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * Creates a solver with a table of {@code 2^tableBits} entries.
+     *
+     * @param tableBits the base two logarithm of the number of entries of the
+     *                  table
+     * @throws IllegalArgumentException if {@code tableBits} is not in the
+     * range {@code [0, 30]}
+     */
+    public IterativeDeepeningSearch(int tableBits) {
+        this(new TranspositionTable(tableBits));
+    }
+
+    /**
+     * Creates a solver that uses the table specified, which is cleared at the
+     * start of every search.
+     *
+     * @param table a transposition table
+     */
+    public IterativeDeepeningSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var start = state.getPacked();
+        monitor = new SearchMonitor(this, start);
+        table.clear();
+        try {
+            return monitor.finish(search(start));
+        } finally {
+            expandedCount = monitor.expandedCount();
+            monitor = null;
+        }
+    }
+
+    private Optional<Node> search(long start) {
+        path[0] = start;
+        var limit = 0;
+        while (true) {
+            var expanded = monitor.expandedCount();
+            var bound = search(0, limit);
+            monitor.layer(limit, monitor.expandedCount() - expanded);
+            if (bound == FOUND) {
+                return Optional.of(Node.of(start, Arrays.copyOf(moves, length)));
+            }
+            if (bound >= UNREACHABLE) {
+                return Optional.empty();
+            }
+            limit = bound;
+        }
+    }
+
+    /**
+     * {@return the number of states expanded by the last search, counting
+     * every round}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * {@return the transposition table of the solver}
+     */
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Searches depth-first below the state at the depth given.
+     *
+     * @return {@code FOUND} if a goal state was reached, otherwise a lower
+     * bound on the distance of the state to a goal state, which exceeds the
+     * remaining depth
+     */
+    private int search(int depth, int limit) {
+        var state = path[depth];
+        if (PackedState.isGoal(state)) {
+            length = depth;
+            return FOUND;
+        }
+        var remaining = limit - depth;
+        var stored = table.bound(state);
+        if (stored > remaining) {
+            monitor.duplicates(1);
+            return stored;
+        }
+        if (remaining == 0) {
+            return 1;
+        }
+        var expanded = monitor.expandedCount();
+        monitor.expanded();
+        monitor.frontierSize(depth + 1);
+        if (depth + 1 == path.length) {
+            path = Arrays.copyOf(path, path.length << 1);
+            moves = Arrays.copyOf(moves, moves.length << 1);
+            successors = Arrays.copyOf(successors, successors.length << 1);
+        }
+        if (successors[depth] == null) {
+            successors[depth] = new int[PackedState.MOVES];
+        }
+        // no successor is skipped, not even the one undoing the last move, as
+        // the bound stored must hold whatever path leads to the state
+        var min = UNREACHABLE;
+        var successors = this.successors[depth];
+        var count = MoveGenerator.successors(state, successors);
+        monitor.generated(count);
+        for (var i = 0; i < count; i++) {
+            path[depth + 1] = PackedState.move(state, successors[i]);
+            moves[depth] = successors[i];
+            var bound = search(depth + 1, limit);
+            if (bound == FOUND) {
+                return FOUND;
+            }
+            min = Math.min(min, bound);
+        }
+        var bound = Math.max(stored, Math.min(min + 1, UNREACHABLE));
+        // the bound is worth keeping in proportion to the states it took
+        var work = monitor.expandedCount() - expanded;
+        table.store(state, bound, Long.SIZE - Long.numberOfLeadingZeros(work));
+        return bound;
+    }
+
+}
@@ -0,0 +1,46 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+
+/**
+ * Estimates the number of moves as the smallest total Manhattan distance of
+ * the pieces from their places in any of the goal states. A move shifts a
+ * single piece by a single cell, so the estimate is admissible and
+ * consistent.
+ */
+public class ManhattanHeuristic implements Heuristic {
+
+    private final int[][] goalRows;
+
+    private final int[][] goalCols;
+
+    /**
+     * Creates a heuristic measuring the distance from every goal state.
+     */
+    public ManhattanHeuristic() {
+        var goals = PackedState.goals();
+        goalRows = new int[goals.length][PackedState.PIECES];
+        goalCols = new int[goals.length][PackedState.PIECES];
+        for (var i = 0; i < goals.length; i++) {
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                goalRows[i][tile] = PackedState.row(goals[i], tile);
+                goalCols[i][tile] = PackedState.col(goals[i], tile);
+            }
+        }
+    }
+
+    @Override
+    public int estimate(long state) {
+        var best = Integer.MAX_VALUE;
+        for (var i = 0; i < goalRows.length; i++) {
+            var distance = 0;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                distance += Math.abs(PackedState.row(state, tile) - goalRows[i][tile])
+                        + Math.abs(PackedState.col(state, tile) - goalCols[i][tile]);
+            }
+            best = Math.min(best, distance);
+        }
+        return best;
+    }
+
+}
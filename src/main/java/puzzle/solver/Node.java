@@ -1,24 +1,26 @@
 package puzzle.solver;
 
 import puzzle.model.Direction;
+import puzzle.model.PackedState;
 import puzzle.model.PuzzleState;
 
-import java.util.EnumSet;
 import java.util.Optional;
-import java.util.TreeMap;
 
 public class Node {
 
     private PuzzleState state;
-    private TreeMap<Integer, Direction> operators;
     private Optional<Node> parent;
     private Optional<Direction> direction;
 
+    // the codes of the legal moves, enumerated when the first child is asked for
+    private int[] operators;
+    private int operatorCount;
+    private int nextOperator;
+
     public Node(PuzzleState state) {
         this.state = state;
         parent = Optional.empty();
         direction = Optional.empty();
-        operators = state.getLegalMoves();
     }
 
     public Node(PuzzleState state, Node parent, Direction direction) {
@@ -27,6 +29,24 @@ public class Node {
         this.direction = Optional.of(direction);
     }
 
+    /**
+     * {@return the node at the end of the path that starts from the packed
+     * state given and follows the moves specified}
+     *
+     * @param start the packed state at the root of the path
+     * @param moves the move codes of the path
+     */
+    static Node of(long start, int[] moves) {
+        var node = new Node(new PuzzleState(start));
+        var state = start;
+        for (var move : moves) {
+            var direction = PackedState.directionOf(move);
+            state = PackedState.move(state, PackedState.tileOf(move), direction);
+            node = new Node(new PuzzleState(state), node, direction);
+        }
+        return node;
+    }
+
     public PuzzleState getState() {
         return state;
     }
@@ -39,28 +59,46 @@ public class Node {
         return direction;
     }
 
+    /**
+     * {@return the codes of the moves from the root to this node}
+     */
+    public int[] getMoves() {
+        var depth = 0;
+        for (var node = this; node.parent.isPresent(); node = node.parent.get()) {
+            depth++;
+        }
+        var moves = new int[depth];
+        for (var node = this; node.parent.isPresent(); node = node.parent.get()) {
+            var before = node.parent.get().state.getPacked();
+            var after = node.state.getPacked();
+            var tile = 0;
+            while (PackedState.cell(before, tile) == PackedState.cell(after, tile)) {
+                tile++;
+            }
+            moves[--depth] = PackedState.moveOf(tile, node.direction.orElseThrow());
+        }
+        return moves;
+    }
+
     public boolean hasNextChild() {
-        return !operators.isEmpty();
+        if (operators == null) {
+            operators = new int[PackedState.MOVES];
+            operatorCount = state.getLegalMoves(operators);
+        }
+        return nextOperator < operatorCount;
     }
 
+    /**
+     * {@return the child reached by the next legal move} Children are
+     * returned in the order of the move codes, one for every legal move.
+     */
     public Optional<Node> nextChild() {
         if (!hasNextChild()) {
             return Optional.empty();
         }
-
-        var iterator = operators.entrySet().iterator();
-        var tile = iterator.next().getKey();
-        var direction = iterator.next().getValue();
-        iterator.remove();
-
-        if (state.canMove(tile, direction)) {
-            var newState = state.clone();
-            newState.move(tile, direction);
-            return Optional.of(new Node(newState, this, direction));
-        }
-
-        // No movable tiles found
-        return Optional.empty();
+        var move = operators[nextOperator++];
+        var child = new PuzzleState(PackedState.move(state.getPacked(), move));
+        return Optional.of(new Node(child, this, PackedState.directionOf(move)));
     }
 
     @Override
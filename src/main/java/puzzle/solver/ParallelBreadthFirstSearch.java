@@ -0,0 +1,304 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Breadth-first search that expands one depth layer at a time, splitting the
+ * layer into chunks that are expanded by fork/join tasks.
+ *
+ * <p>The result does not depend on the scheduling of the tasks: every child
+ * is tagged with the position of its parent in the layer and the code of the
+ * move that produced it, and among the duplicates of a child the one with the
+ * lowest tag is kept. The next layer is then sorted by tag, which is exactly
+ * the order in which {@link BreadthFirstSearch} enqueues the states, so both
+ * return the same path.
+ *
+ * <p>The visited states are kept in stripes selected by the highest bits of
+ * the packed state. Since the children are sorted by state before they are
+ * deduplicated, each stripe owns a contiguous range of them and the stripes
+ * are updated in parallel without locking.
+ */
+public class ParallelBreadthFirstSearch implements Solver {
+
+    private static final int STATE_BITS = PackedState.PIECES * PackedState.CELL_BITS;
+
+    private static final int TAG_BITS = Long.SIZE - 1 - STATE_BITS;
+
+    private static final int STRIPE_BITS = 5;
+
+    private static final int CHUNK_SIZE = 1 << 10;
+
+    private final int parallelism;
+
+    private long expandedCount;
+
+    /**
+     * Creates a solver that uses as many threads as there are processors.
+     */
+    public ParallelBreadthFirstSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a solver that uses the number of threads specified.
+     *
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public ParallelBreadthFirstSearch(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var pool = new ForkJoinPool(parallelism);
+        // the workers of the pool are not interrupted with the calling thread,
+        // so they are told to stop through a flag checked before every layer
+        var cancelled = new AtomicBoolean();
+        try {
+            return pool.submit(() -> solve(state.getPacked(), cancelled)).get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Search interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * {@return the number of worker threads}
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * {@return the number of states expanded by the last search} Unlike
+     * {@link BreadthFirstSearch}, the layer containing the goal state is not
+     * expanded at all.
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    private SearchResult solve(long start, AtomicBoolean cancelled) {
+        var monitor = new SearchMonitor(this, start);
+        try {
+            return monitor.finish(search(start, monitor, cancelled));
+        } finally {
+            expandedCount = monitor.expandedCount();
+        }
+    }
+
+    private Optional<Node> search(long start, SearchMonitor monitor, AtomicBoolean cancelled) {
+        var generated = new LongAdder();
+        var visited = new LongHashSet[1 << STRIPE_BITS];
+        Arrays.setAll(visited, i -> new LongHashSet());
+        visited[stripe(start)].add(start);
+        // layers.get(k) holds the states at depth k, tags.get(k) their tags
+        var layers = new ArrayList<long[]>();
+        var tags = new ArrayList<long[]>();
+        layers.add(new long[] {start});
+        tags.add(new long[] {0});
+        monitor.layer(0, 1);
+        monitor.frontierSize(1);
+        monitor.visitedSize(1);
+        if (PackedState.isGoal(start)) {
+            return Optional.of(Node.of(start, new int[0]));
+        }
+        var visitedSize = 1L;
+        while (true) {
+            if (cancelled.get()) {
+                throw new CancellationException("Search interrupted");
+            }
+            var layer = layers.get(layers.size() - 1);
+            monitor.expanded(layer.length);
+            var children = new Expand(layer, 0, layer.length, visited, generated).invoke();
+            Arrays.parallelSort(children);
+            var next = new Deduplicate(children, 0, visited.length, visited).invoke();
+            var generatedCount = generated.sumThenReset();
+            monitor.generated(generatedCount);
+            monitor.duplicates(generatedCount - next.length);
+            visitedSize += next.length;
+            monitor.frontierSize(next.length);
+            monitor.visitedSize(visitedSize);
+            if (next.length == 0) {
+                return Optional.empty();
+            }
+            // restore the order in which a sequential search enqueues the states
+            Arrays.parallelSort(next);
+            var states = new long[next.length];
+            var nextTags = new long[next.length];
+            for (var i = 0; i < next.length; i++) {
+                states[i] = next[i] & ((1L << STATE_BITS) - 1);
+                nextTags[i] = next[i] >>> STATE_BITS;
+            }
+            layers.add(states);
+            tags.add(nextTags);
+            monitor.layer(layers.size() - 1, states.length);
+            for (var i = 0; i < states.length; i++) {
+                if (PackedState.isGoal(states[i])) {
+                    return Optional.of(Node.of(start, path(tags, layers.size() - 1, i)));
+                }
+            }
+        }
+    }
+
+    private static int[] path(List<long[]> tags, int depth, int index) {
+        var moves = new int[depth];
+        for (var k = depth; k > 0; k--) {
+            var tag = tags.get(k)[index];
+            moves[k - 1] = (int) (tag % PackedState.MOVES);
+            index = (int) (tag / PackedState.MOVES);
+        }
+        return moves;
+    }
+
+    private static int stripe(long state) {
+        return (int) (state >>> (STATE_BITS - STRIPE_BITS));
+    }
+
+    /**
+     * Expands a range of a layer, returning the children not visited yet as
+     * {@code state << TAG_BITS | tag} values, where the tag is the index of
+     * the parent in the layer times the number of moves plus the move code.
+     * The visited stripes are only read while the layer is being expanded.
+     */
+    private static class Expand extends RecursiveTask<long[]> {
+
+        private final long[] layer;
+
+        private final int from;
+
+        private final int to;
+
+        private final LongHashSet[] visited;
+
+        private final LongAdder generated;
+
+        Expand(long[] layer, int from, int to, LongHashSet[] visited, LongAdder generated) {
+            this.layer = layer;
+            this.from = from;
+            this.to = to;
+            this.visited = visited;
+            this.generated = generated;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from > CHUNK_SIZE) {
+                var middle = (from + to) >>> 1;
+                var left = new Expand(layer, from, middle, visited, generated);
+                left.fork();
+                var right = new Expand(layer, middle, to, visited, generated).compute();
+                return concat(left.join(), right);
+            }
+            var children = new long[(to - from) * PackedState.MOVES];
+            var size = 0;
+            var generatedCount = 0;
+            var moves = new int[PackedState.MOVES];
+            for (var i = from; i < to; i++) {
+                var state = layer[i];
+                var count = MoveGenerator.successors(state, moves);
+                generatedCount += count;
+                for (var k = 0; k < count; k++) {
+                    var child = PackedState.move(state, moves[k]);
+                    if (!visited[stripe(child)].contains(child)) {
+                        var tag = (long) i * PackedState.MOVES + moves[k];
+                        children[size++] = child << TAG_BITS | tag;
+                    }
+                }
+            }
+            generated.add(generatedCount);
+            return Arrays.copyOf(children, size);
+        }
+
+    }
+
+    /**
+     * Keeps the child with the lowest tag among the duplicates of each state,
+     * the children being sorted by state, and marks the states visited,
+     * returning them as {@code tag << STATE_BITS | state} values. The children are split by
+     * visited stripe, so every task updates its own stripes.
+     */
+    private static class Deduplicate extends RecursiveTask<long[]> {
+
+        private final long[] children;
+
+        private final int fromStripe;
+
+        private final int toStripe;
+
+        private final LongHashSet[] visited;
+
+        Deduplicate(long[] children, int fromStripe, int toStripe, LongHashSet[] visited) {
+            this.children = children;
+            this.fromStripe = fromStripe;
+            this.toStripe = toStripe;
+            this.visited = visited;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (toStripe - fromStripe > 1) {
+                var middle = (fromStripe + toStripe) >>> 1;
+                var left = new Deduplicate(children, fromStripe, middle, visited);
+                left.fork();
+                var right = new Deduplicate(children, middle, toStripe, visited).compute();
+                return concat(left.join(), right);
+            }
+            var from = firstOfStripe(fromStripe);
+            var to = firstOfStripe(toStripe);
+            var states = new long[to - from];
+            var size = 0;
+            for (var i = from; i < to; i++) {
+                var child = children[i] >>> TAG_BITS;
+                if (visited[fromStripe].add(child)) {
+                    var tag = children[i] & ((1L << TAG_BITS) - 1);
+                    states[size++] = tag << STATE_BITS | child;
+                }
+            }
+            return Arrays.copyOf(states, size);
+        }
+
+        private int firstOfStripe(int stripe) {
+            if (stripe == visited.length) {
+                return children.length;
+            }
+            var key = (long) stripe << (STATE_BITS - STRIPE_BITS + TAG_BITS);
+            var index = Arrays.binarySearch(children, key);
+            return index >= 0 ? index : -index - 1;
+        }
+
+    }
+
+    private static long[] concat(long[] left, long[] right) {
+        var result = Arrays.copyOf(left, left.length + right.length);
+        System.arraycopy(right, 0, result, left.length, right.length);
+        return result;
+    }
+
+}
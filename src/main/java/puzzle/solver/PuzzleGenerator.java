@@ -0,0 +1,245 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.util.LongHashSet;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Generates start states whose optimal number of moves to a goal state lies
+ * in a requested range.
+ *
+ * <p>The states are drawn from those reached by legal moves from the goal
+ * states that can be solved again, the exact distance of each state being
+ * looked up in a {@link DistanceTable}. These states are enumerated once,
+ * when the generator is created, and grouped by their distance. A state is
+ * then drawn by picking a distance of the range uniformly and a state of
+ * that distance uniformly, so drawing costs no search at all.
+ *
+ * <p>The state with index {@code i} of a batch only depends on the seed and
+ * on {@code i}, so a batch is reproducible whatever the number of threads.
+ */
+public class PuzzleGenerator {
+
+    private static final String USAGE =
+            "Usage: PuzzleGenerator <count> <min distance> [<max distance>] [--seed <n>] [--threads <n>] [--table <file>]";
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final int parallelism;
+
+    // the states of each distance, in the order they were reached
+    private final long[][] statesByDistance;
+
+    /**
+     * Creates a generator that uses as many threads as there are processors.
+     *
+     * @param table the table of the exact distances
+     */
+    public PuzzleGenerator(DistanceTable table) {
+        this(table, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a generator that uses the number of threads specified.
+     *
+     * @param table the table of the exact distances
+     * @param parallelism the number of worker threads
+     * @throws IllegalArgumentException if {@code parallelism} is not positive
+     */
+    public PuzzleGenerator(DistanceTable table, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.parallelism = parallelism;
+        statesByDistance = enumerate(table);
+    }
+
+    /**
+     * {@return the states reached by legal moves from the goal states that can
+     * be solved, grouped by their distance to a goal state}
+     */
+    private static long[][] enumerate(DistanceTable table) {
+        // the states found so far, which are also the queue of the search
+        var states = PackedState.goals();
+        var size = states.length;
+        var visited = new LongHashSet();
+        for (var goal : states) {
+            visited.add(goal);
+        }
+        var counts = new int[table.getMaxDistance() + 1];
+        var moves = new int[PackedState.MOVES];
+        for (var head = 0; head < size; head++) {
+            var state = states[head];
+            var distance = table.distance(state);
+            if (distance < 0) {
+                // moves are not always reversible, see PackedState.predecessor:
+                // a piece hanging over the edge can move onto the board but
+                // not back, so a goal may lead to a state that cannot be
+                // solved, and neither can any of its successors
+                continue;
+            }
+            counts[distance]++;
+            var count = MoveGenerator.successors(state, moves);
+            for (var i = 0; i < count; i++) {
+                var child = PackedState.move(state, moves[i]);
+                if (visited.add(child)) {
+                    if (size == states.length) {
+                        states = Arrays.copyOf(states, size << 1);
+                    }
+                    states[size++] = child;
+                }
+            }
+        }
+        var statesByDistance = new long[counts.length][];
+        for (var distance = 0; distance < counts.length; distance++) {
+            statesByDistance[distance] = new long[counts[distance]];
+            counts[distance] = 0;
+        }
+        for (var i = 0; i < size; i++) {
+            var distance = table.distance(states[i]);
+            if (distance >= 0) {
+                statesByDistance[distance][counts[distance]++] = states[i];
+            }
+        }
+        return statesByDistance;
+    }
+
+    /**
+     * {@return the number of worker threads}
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * {@return the largest distance of a start state to a goal state}
+     */
+    public int getMaxDistance() {
+        var distance = statesByDistance.length - 1;
+        while (distance > 0 && statesByDistance[distance].length == 0) {
+            distance--;
+        }
+        return distance;
+    }
+
+    /**
+     * {@return the number of different start states at the distance
+     * specified}
+     *
+     * @param distance a distance to a goal state
+     */
+    public int count(int distance) {
+        return distance >= 0 && distance < statesByDistance.length ? statesByDistance[distance].length : 0;
+    }
+
+    /**
+     * {@return the packed start states generated from the seed specified}
+     * States are drawn independently, so a batch larger than the number of
+     * states in the range repeats some of them.
+     *
+     * @param seed the seed of the batch
+     * @param count the number of states
+     * @param minDistance the smallest distance of a state to a goal state
+     * @param maxDistance the largest distance of a state to a goal state
+     * @throws IllegalArgumentException if {@code count} is negative or no
+     * state lies in the range
+     */
+    public long[] generate(long seed, int count, int minDistance, int maxDistance) {
+        checkRange(minDistance, maxDistance);
+        if (count < 0) {
+            throw new IllegalArgumentException();
+        }
+        var states = new long[count];
+        var pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, count).parallel()
+                    .forEach(i -> states[i] = next(random(seed, i), minDistance, maxDistance))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return states;
+    }
+
+    /**
+     * {@return a packed start state drawn from the source of randomness
+     * specified} The distance is drawn uniformly among those of the range
+     * that have a state, then the state among those of that distance.
+     *
+     * @param random a source of randomness
+     * @param minDistance the smallest distance of the state to a goal state
+     * @param maxDistance the largest distance of the state to a goal state
+     * @throws IllegalArgumentException if no state lies in the range
+     */
+    public long next(SplittableRandom random, int minDistance, int maxDistance) {
+        checkRange(minDistance, maxDistance);
+        while (true) {
+            var states = statesByDistance[random.nextInt(minDistance, maxDistance + 1)];
+            if (states.length > 0) {
+                return states[random.nextInt(states.length)];
+            }
+        }
+    }
+
+    private void checkRange(int minDistance, int maxDistance) {
+        if (minDistance < 0 || minDistance > maxDistance || maxDistance > getMaxDistance()) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    // every state of a batch has its own stream, so the threads never share one
+    private static SplittableRandom random(long seed, int index) {
+        return new SplittableRandom(seed + index * GOLDEN_GAMMA);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        var count = Integer.parseInt(args[0]);
+        var minDistance = Integer.parseInt(args[1]);
+        var maxDistance = minDistance;
+        var seed = System.nanoTime();
+        var threads = Runtime.getRuntime().availableProcessors();
+        Path tablePath = null;
+        var i = 2;
+        if (i < args.length && !args[i].startsWith("--")) {
+            maxDistance = Integer.parseInt(args[i++]);
+        }
+        for (; i < args.length; i++) {
+            switch (args[i]) {
+                case "--seed" -> seed = Long.parseLong(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                case "--table" -> tablePath = Path.of(args[++i]);
+                default -> {
+                    System.err.println(USAGE);
+                    System.exit(2);
+                }
+            }
+        }
+        var table = tablePath != null ? DistanceTable.mapOrBuild(tablePath) : DistanceTable.build();
+        var startTime = System.nanoTime();
+        var states = new PuzzleGenerator(table, threads).generate(seed, count, minDistance, maxDistance);
+        var seconds = (System.nanoTime() - startTime) / 1e9;
+        // the output is a valid input of BatchSolver
+        var out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        out.write(String.format("# seed %d, distance %d to %d%n", seed, minDistance, maxDistance));
+        for (var state : states) {
+            out.write(PackedState.toString(state));
+            out.newLine();
+        }
+        out.flush();
+        System.err.printf("%d states in %.3f s, %.0f states/s%n", count, seconds, count / seconds);
+    }
+
+}
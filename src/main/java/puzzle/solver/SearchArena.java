@@ -0,0 +1,194 @@
+package puzzle.solver;
+
+import java.util.Arrays;
+
+/**
+ * The nodes reached by a search, stored as a struct of arrays: the packed
+ * state, the id of the parent and the code of the last move of each node are
+ * kept in parallel primitive arrays indexed by node id. A node takes
+ * {@value #NODE_BYTES} bytes, and the path to any node is rebuilt by following
+ * the parent ids back to the root.
+ *
+ * <p>Only the nodes of the final path are ever turned into {@link Node}
+ * objects.
+ */
+public class SearchArena {
+
+    /**
+     * The number of bytes a node takes in the arrays of the arena.
+     */
+    public static final int NODE_BYTES = Long.BYTES + Integer.BYTES + Byte.BYTES;
+
+    /**
+     * The parent id of the root nodes.
+     */
+    public static final int NO_PARENT = -1;
+
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    private long[] states;
+
+    private int[] parents;
+
+    private byte[] moves;
+
+    private int size;
+
+    /**
+     * Creates an empty arena with the default initial capacity.
+     */
+    public SearchArena() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty arena with the initial capacity specified.
+     *
+     * @param capacity the number of nodes that fit without growing
+     */
+    public SearchArena(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        states = new long[capacity];
+        parents = new int[capacity];
+        moves = new byte[capacity];
+    }
+
+    /**
+     * Adds a node to the arena.
+     *
+     * @param state a packed state
+     * @param parent the id of the parent, or {@link #NO_PARENT} for a root
+     * @param move the code of the move that leads from the parent to the state
+     * @return the id of the node
+     */
+    public int add(long state, int parent, int move) {
+        if (size == states.length) {
+            if (size == Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Arena is full");
+            }
+            var capacity = (int) Math.min((long) size << 1, Integer.MAX_VALUE - 8);
+            states = Arrays.copyOf(states, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            moves = Arrays.copyOf(moves, capacity);
+        }
+        states[size] = state;
+        parents[size] = parent;
+        moves[size] = (byte) move;
+        return size++;
+    }
+
+    /**
+     * {@return the packed state of the node specified}
+     *
+     * @param id the id of a node
+     */
+    public long state(int id) {
+        return states[id];
+    }
+
+    /**
+     * {@return the id of the parent of the node specified, or
+     * {@link #NO_PARENT} if it is a root}
+     *
+     * @param id the id of a node
+     */
+    public int parent(int id) {
+        return parents[id];
+    }
+
+    /**
+     * {@return the code of the move that leads to the node specified} The
+     * move of a root is meaningless.
+     *
+     * @param id the id of a node
+     */
+    public int move(int id) {
+        return moves[id];
+    }
+
+    /**
+     * {@return the number of moves from the root to the node specified}
+     *
+     * @param id the id of a node
+     */
+    public int depth(int id) {
+        var depth = 0;
+        for (var i = id; parents[i] != NO_PARENT; i = parents[i]) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * {@return the codes of the moves from the root to the node specified}
+     *
+     * @param id the id of a node
+     */
+    public int[] path(int id) {
+        var path = new int[depth(id)];
+        var k = path.length;
+        for (var i = id; parents[i] != NO_PARENT; i = parents[i]) {
+            path[--k] = moves[i];
+        }
+        return path;
+    }
+
+    /**
+     * {@return the root of the node specified}
+     *
+     * @param id the id of a node
+     */
+    public int root(int id) {
+        var i = id;
+        while (parents[i] != NO_PARENT) {
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * {@return the node at the end of the path from the root to the node
+     * with the id specified}
+     *
+     * @param id the id of a node
+     */
+    public Node toNode(int id) {
+        return Node.of(states[root(id)], path(id));
+    }
+
+    /**
+     * {@return the number of nodes in the arena}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return the number of nodes that fit in the arena without growing}
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * {@return the number of bytes occupied by the arrays of the arena}
+     */
+    public long bytesUsed() {
+        return (long) states.length * NODE_BYTES;
+    }
+
+    /**
+     * Removes all the nodes from the arena, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SearchArena[size=%d, capacity=%d, bytes=%d]", size, states.length, bytesUsed());
+    }
+
+}
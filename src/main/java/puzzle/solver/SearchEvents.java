@@ -0,0 +1,94 @@
+package puzzle.solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder events emitted by the solvers. They are disabled
+ * unless a recording enables them, for example with
+ * {@code -XX:StartFlightRecording} and a settings file that turns on the
+ * {@code puzzle.solver.*} events.
+ */
+final class SearchEvents {
+
+    private SearchEvents() {
+    }
+
+    @Name("puzzle.solver.SearchStart")
+    @Label("Search Start")
+    @Category({"Puzzle", "Solver"})
+    @Description("A solver started searching from a state")
+    static class Start extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Start State")
+        String state;
+
+    }
+
+    @Name("puzzle.solver.SearchLayer")
+    @Label("Search Layer")
+    @Category({"Puzzle", "Solver"})
+    @Description("A solver moved on to the next depth layer, or to the next cost bound")
+    static class Layer extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Depth")
+        int depth;
+
+        @Label("Layer Size")
+        long layerSize;
+
+        @Label("Expanded")
+        long expanded;
+
+        @Label("Generated")
+        long generated;
+
+    }
+
+    @Name("puzzle.solver.SearchCompleted")
+    @Label("Search Completed")
+    @Category({"Puzzle", "Solver"})
+    @Description("A solver finished searching; the duration spans the whole search")
+    static class Completed extends Event {
+
+        @Label("Solver")
+        String solver;
+
+        @Label("Solved")
+        boolean solved;
+
+        @Label("Path Length")
+        int pathLength;
+
+        @Label("Expanded")
+        long expanded;
+
+        @Label("Generated")
+        long generated;
+
+        @Label("Duplicates")
+        long duplicates;
+
+        @Label("Peak Frontier Size")
+        long peakFrontierSize;
+
+        @Label("Peak Visited Size")
+        long peakVisitedSize;
+
+        @Label("Time per Expansion")
+        @Timespan(Timespan.NANOSECONDS)
+        long nanosPerExpansion;
+
+    }
+
+}
@@ -0,0 +1,147 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Collects the {@link SearchStatistics} of one search and emits its
+ * {@link SearchEvents}. A solver creates a monitor when it starts, counts
+ * expansions and generated states while it runs, reports every new depth
+ * layer and finishes the monitor with the path it found.
+ *
+ * <p>Every expansion is also where a search notices that it was cancelled:
+ * if the thread running it is interrupted, the search is abandoned with a
+ * {@link CancellationException}.
+ */
+final class SearchMonitor {
+
+    private final String solver;
+
+    private final long startNanos;
+
+    private final SearchEvents.Completed completed = new SearchEvents.Completed();
+
+    private long expandedCount;
+
+    private long generatedCount;
+
+    private long duplicateCount;
+
+    private long peakFrontierSize;
+
+    private long peakVisitedSize;
+
+    SearchMonitor(Solver solver, long start) {
+        this.solver = solver.getClass().getSimpleName();
+        var event = new SearchEvents.Start();
+        if (event.shouldCommit()) {
+            event.solver = this.solver;
+            event.state = PackedState.toString(start);
+            event.commit();
+        }
+        completed.begin();
+        startNanos = System.nanoTime();
+    }
+
+    void expanded() {
+        expandedCount++;
+        checkCancelled();
+    }
+
+    void expanded(long count) {
+        expandedCount += count;
+        checkCancelled();
+    }
+
+    /**
+     * Abandons the search if the thread running it is interrupted. The
+     * interrupt status is left set for the caller to see.
+     *
+     * @throws CancellationException if the current thread is interrupted
+     */
+    private static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Search interrupted");
+        }
+    }
+
+    void generated(long count) {
+        generatedCount += count;
+    }
+
+    void duplicates(long count) {
+        duplicateCount += count;
+    }
+
+    /**
+     * {@return the number of states expanded so far}
+     */
+    long expandedCount() {
+        return expandedCount;
+    }
+
+    void frontierSize(long size) {
+        if (size > peakFrontierSize) {
+            peakFrontierSize = size;
+        }
+    }
+
+    void visitedSize(long size) {
+        if (size > peakVisitedSize) {
+            peakVisitedSize = size;
+        }
+    }
+
+    /**
+     * Reports that the search moved on to a new layer.
+     *
+     * @param depth the depth, or cost bound, of the layer
+     * @param size the number of states in the layer
+     */
+    void layer(int depth, long size) {
+        var event = new SearchEvents.Layer();
+        if (event.shouldCommit()) {
+            event.solver = solver;
+            event.depth = depth;
+            event.layerSize = size;
+            event.expanded = expandedCount;
+            event.generated = generatedCount;
+            event.commit();
+        }
+    }
+
+    /**
+     * {@return the result of the search, after emitting its completion event}
+     *
+     * @param path the path found, if any
+     */
+    SearchResult finish(Optional<Node> path) {
+        var statistics = new SearchStatistics(expandedCount, generatedCount, duplicateCount,
+                peakFrontierSize, peakVisitedSize, System.nanoTime() - startNanos);
+        completed.end();
+        if (completed.shouldCommit()) {
+            completed.solver = solver;
+            completed.solved = path.isPresent();
+            completed.pathLength = path.map(SearchMonitor::length).orElse(-1);
+            completed.expanded = statistics.expandedCount();
+            completed.generated = statistics.generatedCount();
+            completed.duplicates = statistics.duplicateCount();
+            completed.peakFrontierSize = statistics.peakFrontierSize();
+            completed.peakVisitedSize = statistics.peakVisitedSize();
+            completed.nanosPerExpansion = Math.round(statistics.nanosPerExpansion());
+            completed.commit();
+        }
+        return new SearchResult(path, statistics);
+    }
+
+    private static int length(Node node) {
+        var length = 0;
+        for (var current = node.getParent(); current.isPresent(); current = current.get().getParent()) {
+            length++;
+        }
+        return length;
+    }
+
+}
@@ -0,0 +1,13 @@
+package puzzle.solver;
+
+import java.util.Optional;
+
+/**
+ * The outcome of a search.
+ *
+ * @param path the node of the goal state at the end of the path found, or an
+ *             empty {@code Optional} if no goal state is reachable
+ * @param statistics the counters collected during the search
+ */
+public record SearchResult(Optional<Node> path, SearchStatistics statistics) {
+}
@@ -0,0 +1,32 @@
+package puzzle.solver;
+
+/**
+ * Counters collected during a search.
+ *
+ * @param expandedCount the number of states whose successors were generated
+ * @param generatedCount the number of successors generated
+ * @param duplicateCount the number of generated successors, or queued
+ *                       entries, that were discarded because the state had
+ *                       already been reached
+ * @param peakFrontierSize the largest number of states waiting to be
+ *                         expanded at once
+ * @param peakVisitedSize the largest number of states remembered as reached
+ *                        at once
+ * @param elapsedNanos the wall-clock duration of the search in nanoseconds
+ */
+public record SearchStatistics(long expandedCount,
+                               long generatedCount,
+                               long duplicateCount,
+                               long peakFrontierSize,
+                               long peakVisitedSize,
+                               long elapsedNanos) {
+
+    /**
+     * {@return the average number of nanoseconds spent per expanded state, or
+     * zero if no state was expanded}
+     */
+    public double nanosPerExpansion() {
+        return expandedCount == 0 ? 0 : (double) elapsedNanos / expandedCount;
+    }
+
+}
@@ -0,0 +1,110 @@
+package puzzle.solver;
+
+import puzzle.model.PuzzleState;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * A search algorithm that finds a path from a state of the puzzle to one of
+ * the goal states.
+ */
+public interface Solver {
+
+    /**
+     * Searches for a path from the state specified to a goal state,
+     * collecting statistics along the way. The search is abandoned if the
+     * calling thread is interrupted.
+     *
+     * @param state the state to start from
+     * @return the path found and the statistics of the search
+     * @throws java.util.concurrent.CancellationException if the calling
+     * thread was interrupted during the search, whose interrupt status is
+     * left set
+     */
+    SearchResult solve(PuzzleState state);
+
+    /**
+     * Searches for a path from the state specified to a goal state.
+     *
+     * @param state the state to start from
+     * @return the node of the goal state at the end of the path, whose parents
+     * lead back to the start, or an empty {@code Optional} if no goal state is
+     * reachable
+     */
+    default Optional<Node> search(PuzzleState state) {
+        return solve(state).path();
+    }
+
+    /**
+     * {@return a supplier of new instances of the solver with the name
+     * specified} The names are {@code bfs}, {@code parallel-bfs},
+     * {@code symmetric-bfs}, {@code bidirectional}, {@code astar},
+     * {@code idastar}, {@code iddfs} and {@code table}; the instances of {@code table}
+     * share a single {@link DistanceTable}, which is built when this method
+     * is called.
+     *
+     * <p>The name of {@code parallel-bfs} may be followed by a colon and the
+     * number of worker threads of each instance, for example
+     * {@code parallel-bfs:4}; there are as many as processors otherwise. The
+     * name of {@code iddfs} may be followed by a colon and the number of
+     * bytes the transposition table of each instance may take, for example
+     * {@code iddfs:1048576}, see {@link TranspositionTable#ofMaxBytes(long)};
+     * the table has the {@linkplain IterativeDeepeningSearch#DEFAULT_TABLE_BITS
+     * default size} otherwise.
+     *
+     * @param name the name of a solver, possibly followed by its option
+     * @throws IllegalArgumentException if there is no solver with the name,
+     * or its option is not valid
+     */
+    static Supplier<Solver> factory(String name) {
+        var separator = name.indexOf(':');
+        var solver = separator < 0 ? name : name.substring(0, separator);
+        var option = separator < 0 ? null : name.substring(separator + 1);
+        if (option != null && !solver.equals("parallel-bfs") && !solver.equals("iddfs")) {
+            throw new IllegalArgumentException("Solver " + solver + " takes no option");
+        }
+        return switch (solver) {
+            case "bfs" -> BreadthFirstSearch::new;
+            case "parallel-bfs" -> {
+                var parallelism = option == null
+                        ? Runtime.getRuntime().availableProcessors()
+                        : parseOption(name, option);
+                if (parallelism < 1 || parallelism > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Invalid number of threads: " + name);
+                }
+                var threads = (int) parallelism;
+                yield () -> new ParallelBreadthFirstSearch(threads);
+            }
+            case "symmetric-bfs" -> SymmetricBreadthFirstSearch::new;
+            case "bidirectional" -> BidirectionalSearch::new;
+            case "astar" -> AStarSearch::new;
+            case "idastar" -> IterativeDeepeningAStarSearch::new;
+            case "iddfs" -> {
+                if (option == null) {
+                    yield IterativeDeepeningSearch::new;
+                }
+                var maxBytes = parseOption(name, option);
+                if (maxBytes < TranspositionTable.ENTRY_BYTES) {
+                    throw new IllegalArgumentException("Invalid table size: " + name);
+                }
+                yield () -> new IterativeDeepeningSearch(TranspositionTable.ofMaxBytes(maxBytes));
+            }
+            case "table" -> {
+                // the table is only read while solving, so it is shared
+                var table = DistanceTable.build();
+                yield () -> new DistanceTableSearch(table);
+            }
+            default -> throw new IllegalArgumentException("Unknown solver " + name);
+        };
+    }
+
+    private static long parseOption(String name, String option) {
+        try {
+            return Long.parseLong(option);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid option: " + name, e);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package puzzle.solver;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a table file was written by another version of the format or
+ * for another board or set of pieces.
+ */
+public class StaleTableException extends IOException {
+
+    /**
+     * Creates an exception with the detail message specified.
+     *
+     * @param message the detail message
+     */
+    public StaleTableException(String message) {
+        super(message);
+    }
+
+}
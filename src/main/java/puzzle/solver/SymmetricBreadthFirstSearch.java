@@ -0,0 +1,118 @@
+package puzzle.solver;
+
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.model.Symmetry;
+import puzzle.util.LongHashSet;
+
+import java.util.Optional;
+
+/**
+ * Breadth-first search over the {@linkplain Symmetry#canonical(long) canonical
+ * forms} of the states. Mirror images of a state are only expanded once,
+ * which shrinks the frontier and the visited set by up to four times when the
+ * reachable states come in symmetric groups. States with a piece hanging over
+ * the edge of the board have no mirror images and are searched as they are.
+ *
+ * <p>The search arena holds canonical states, each with the move that leads
+ * to it from the canonical form of its parent. The path is translated back to
+ * the moves of the real puzzle by tracking the symmetry between each real
+ * state and its canonical form along the way.
+ */
+public class SymmetricBreadthFirstSearch implements Solver {
+
+    private long expandedCount;
+
+    private int visitedSize;
+
+    @Override
+    public SearchResult solve(PuzzleState state) {
+        var start = state.getPacked();
+        var monitor = new SearchMonitor(this, start);
+        var open = new Frontier();
+        var closed = new SearchArena();
+        var seen = new LongHashSet();
+        var moves = new int[PackedState.MOVES];
+        var root = Symmetry.canonical(start);
+        open.offer(root, SearchArena.NO_PARENT, 0);
+        seen.add(root);
+        var layerRemaining = 1;
+        var depth = 0;
+        monitor.layer(depth, 1);
+        try {
+            while (!open.isEmpty()) {
+                if (layerRemaining == 0) {
+                    layerRemaining = open.size();
+                    monitor.layer(++depth, layerRemaining);
+                }
+                layerRemaining--;
+                var slot = open.poll();
+                var packed = open.state(slot);
+                var id = closed.add(packed, open.parent(slot), open.move(slot));
+                if (PackedState.isGoal(packed)) {
+                    return finish(monitor, Optional.of(Node.of(start, realMoves(start, closed, id))), open, seen);
+                }
+                monitor.expanded();
+                var count = MoveGenerator.successors(packed, moves);
+                monitor.generated(count);
+                for (var i = 0; i < count; i++) {
+                    var child = Symmetry.canonical(PackedState.move(packed, moves[i]));
+                    if (seen.add(child)) {
+                        open.offer(child, id, moves[i]);
+                    } else {
+                        monitor.duplicates(1);
+                    }
+                }
+            }
+            return finish(monitor, Optional.empty(), open, seen);
+        } finally {
+            expandedCount = monitor.expandedCount();
+            visitedSize = seen.size();
+        }
+    }
+
+    private static SearchResult finish(SearchMonitor monitor, Optional<Node> path, Frontier open, LongHashSet seen) {
+        monitor.frontierSize(open.peakSize());
+        monitor.visitedSize(seen.size());
+        return monitor.finish(path);
+    }
+
+    /**
+     * {@return the moves of the real puzzle that follow the canonical path to
+     * the node specified}
+     */
+    private static int[] realMoves(long start, SearchArena closed, int id) {
+        var canonicalMoves = closed.path(id);
+        var moves = new int[canonicalMoves.length];
+        var node = id;
+        var canonicalStates = new long[canonicalMoves.length + 1];
+        for (var k = canonicalMoves.length; k >= 0; k--) {
+            canonicalStates[k] = closed.state(node);
+            node = closed.parent(node);
+        }
+        var state = start;
+        for (var k = 0; k < moves.length; k++) {
+            // the symmetry maps the real state to its canonical form and back
+            var symmetry = Symmetry.symmetryBetween(state, canonicalStates[k]);
+            moves[k] = Symmetry.applyToMove(canonicalMoves[k], symmetry);
+            state = PackedState.move(state, moves[k]);
+        }
+        return moves;
+    }
+
+    /**
+     * {@return the number of states expanded by the last search}
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+
+    /**
+     * {@return the number of canonical states reached by the last search}
+     */
+    public int getVisitedSize() {
+        return visitedSize;
+    }
+
+}
@@ -0,0 +1,180 @@
+package puzzle.solver;
+
+import puzzle.model.PackedState;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size, lossy table of lower bounds on the distance of packed states
+ * to the nearest goal state. The entries are grouped in buckets of
+ * {@value #BUCKET_SIZE}, and each state can only be stored in the bucket
+ * selected by its hash. A new state always finds a place: when its bucket is
+ * full, it replaces the entry whose bound took the least work to establish,
+ * as that is the work a lookup of the entry saves. Leaves of the search are
+ * thus the first to go, while the roots of large subtrees stay, so a table
+ * smaller than the states searched costs some repeated work rather than all
+ * of it. Lookups of states that were replaced simply miss, so the table
+ * never grows and never holds a wrong bound.
+ *
+ * <p>An entry takes {@value #ENTRY_BYTES} bytes in parallel primitive arrays:
+ * the packed state, the bound and the work of the search that established
+ * it, measured as the base two logarithm of the number of states expanded.
+ */
+public class TranspositionTable {
+
+    /**
+     * The number of bytes an entry takes.
+     */
+    public static final int ENTRY_BYTES = Long.BYTES + 2 * Byte.BYTES;
+
+    /**
+     * The number of entries in a bucket, unless the whole table is smaller.
+     */
+    public static final int BUCKET_SIZE = 8;
+
+    private static final long EMPTY = -1L;
+
+    private final long[] states;
+
+    private final byte[] bounds;
+
+    private final byte[] works;
+
+    private final int bucketSize;
+
+    // selects the bucket of a hash code
+    private final int mask;
+
+    private long stores;
+
+    private long replacements;
+
+    /**
+     * Creates an empty table.
+     *
+     * @param bits the base two logarithm of the number of entries
+     * @throws IllegalArgumentException if {@code bits} is not in the range
+     * {@code [0, 30]}
+     */
+    public TranspositionTable(int bits) {
+        if (bits < 0 || bits > 30) {
+            throw new IllegalArgumentException();
+        }
+        states = new long[1 << bits];
+        bounds = new byte[1 << bits];
+        works = new byte[1 << bits];
+        bucketSize = Math.min(BUCKET_SIZE, 1 << bits);
+        mask = (1 << bits) / bucketSize - 1;
+        clear();
+    }
+
+    /**
+     * {@return the largest table whose entries fit in the number of bytes
+     * specified}
+     *
+     * @param maxBytes the memory budget of the table
+     * @throws IllegalArgumentException if not even one entry fits
+     */
+    public static TranspositionTable ofMaxBytes(long maxBytes) {
+        if (maxBytes < ENTRY_BYTES) {
+            throw new IllegalArgumentException();
+        }
+        var bits = 63 - Long.numberOfLeadingZeros(maxBytes / ENTRY_BYTES);
+        return new TranspositionTable(Math.min(bits, 30));
+    }
+
+    /**
+     * {@return the lower bound stored for the packed state, or zero if the
+     * state is not in the table}
+     *
+     * @param state a packed state
+     */
+    public int bound(long state) {
+        var first = bucket(state);
+        for (var slot = first; slot < first + bucketSize; slot++) {
+            if (states[slot] == state) {
+                return bounds[slot];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a lower bound on the distance of the packed state to a goal
+     * state. If the state is already stored, the larger bound is kept;
+     * otherwise the state takes an empty entry of its bucket or, if there is
+     * none, the one whose bound took the least work.
+     *
+     * @param state a packed state
+     * @param bound a lower bound on the distance to a goal state, at most
+     *              {@value Byte#MAX_VALUE}
+     * @param work the base two logarithm of the number of states expanded to
+     *             establish the bound
+     */
+    public void store(long state, int bound, int work) {
+        var first = bucket(state);
+        var victim = first;
+        for (var slot = first; slot < first + bucketSize; slot++) {
+            if (states[slot] == state) {
+                if (bound > bounds[slot]) {
+                    bounds[slot] = (byte) Math.min(bound, Byte.MAX_VALUE);
+                    works[slot] = (byte) Math.min(work, Byte.MAX_VALUE);
+                }
+                return;
+            }
+            if (states[victim] != EMPTY && (states[slot] == EMPTY || works[slot] < works[victim])) {
+                victim = slot;
+            }
+        }
+        if (states[victim] != EMPTY) {
+            replacements++;
+        }
+        stores++;
+        states[victim] = state;
+        bounds[victim] = (byte) Math.min(bound, Byte.MAX_VALUE);
+        works[victim] = (byte) Math.min(work, Byte.MAX_VALUE);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(states, EMPTY);
+        stores = 0;
+        replacements = 0;
+    }
+
+    /**
+     * {@return the number of entries}
+     */
+    public int capacity() {
+        return states.length;
+    }
+
+    /**
+     * {@return the number of bytes occupied by the arrays of the table}
+     */
+    public long bytesUsed() {
+        return (long) states.length * ENTRY_BYTES;
+    }
+
+    /**
+     * {@return the number of states stored since the table was cleared}
+     */
+    public long stores() {
+        return stores;
+    }
+
+    /**
+     * {@return the number of stored states that replaced another one since
+     * the table was cleared}
+     */
+    public long replacements() {
+        return replacements;
+    }
+
+    private int bucket(long state) {
+        return (PackedState.hash(state) & mask) * bucketSize;
+    }
+
+}
@@ -0,0 +1,212 @@
+package puzzle.util;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive {@code long} values using open addressing with linear
+ * probing. Values are stored unboxed in a single array whose capacity is
+ * always a power of two; the array is doubled whenever the number of
+ * elements exceeds the load factor.
+ */
+public class LongHashSet {
+
+    /**
+     * The number of elements a set created with the default constructor
+     * holds without resizing.
+     */
+    public static final int DEFAULT_EXPECTED_SIZE = 1 << 9;
+
+    /**
+     * The default load factor.
+     */
+    public static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    // zero marks an empty slot, so the value zero itself is tracked separately
+    private static final long EMPTY = 0L;
+
+    private final float loadFactor;
+
+    private long[] keys;
+
+    private int mask;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean containsEmpty;
+
+    /**
+     * Creates an empty set with the default expected size and load factor.
+     */
+    public LongHashSet() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty set with the default load factor that can hold the
+     * number of elements specified without resizing.
+     *
+     * @param expectedSize the number of elements expected
+     */
+    public LongHashSet(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Creates an empty set that can hold the number of elements specified
+     * without resizing.
+     *
+     * @param expectedSize the number of elements expected
+     * @param loadFactor the maximum ratio of elements to slots, between zero
+     * (exclusive) and one (exclusive)
+     */
+    public LongHashSet(int expectedSize, float loadFactor) {
+        if (expectedSize < 0 || !(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException();
+        }
+        this.loadFactor = loadFactor;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Adds the value specified to the set.
+     *
+     * @param value a value
+     * @return {@code true} if the set did not already contain the value
+     */
+    public boolean add(long value) {
+        if (value == EMPTY) {
+            if (containsEmpty) {
+                return false;
+            }
+            containsEmpty = true;
+            size++;
+            return true;
+        }
+        var slot = mix(value) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = value;
+        if (++size > threshold) {
+            resize(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * {@return whether the set contains the value specified}
+     *
+     * @param value a value
+     */
+    public boolean contains(long value) {
+        if (value == EMPTY) {
+            return containsEmpty;
+        }
+        var slot = mix(value) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * {@return the elements of the set in slot order}
+     */
+    public long[] toArray() {
+        var values = new long[size];
+        var n = 0;
+        if (containsEmpty) {
+            values[n++] = EMPTY;
+        }
+        for (var key : keys) {
+            if (key != EMPTY) {
+                values[n++] = key;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * {@return the number of elements in the set}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether the set has no elements}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of slots currently allocated}
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * {@return the approximate number of bytes occupied by the slots}
+     */
+    public long bytesUsed() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    /**
+     * Removes all the elements from the set, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        containsEmpty = false;
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Set is full");
+        }
+        var oldKeys = keys;
+        allocate(capacity);
+        for (var key : oldKeys) {
+            if (key != EMPTY) {
+                var slot = mix(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        threshold = Math.min((int) (capacity * (double) loadFactor), capacity - 1);
+    }
+
+    private int capacityFor(int expectedSize) {
+        var needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException();
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private static int mix(long value) {
+        var h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
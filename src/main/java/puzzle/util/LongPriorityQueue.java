@@ -0,0 +1,118 @@
+package puzzle.util;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive {@code long} values. Callers typically pack
+ * a priority into the high bits and a payload into the low bits of each
+ * value, so that the natural order of the values is the order of service.
+ */
+public class LongPriorityQueue {
+
+    private long[] heap;
+
+    private int size;
+
+    /**
+     * Creates an empty queue with a small initial capacity.
+     */
+    public LongPriorityQueue() {
+        this(1 << 10);
+    }
+
+    /**
+     * Creates an empty queue with the initial capacity specified.
+     *
+     * @param capacity the number of values the queue can hold before growing
+     */
+    public LongPriorityQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException();
+        }
+        heap = new long[capacity];
+    }
+
+    /**
+     * Inserts a value into the queue.
+     *
+     * @param value a value
+     */
+    public void add(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size << 1);
+        }
+        var i = size++;
+        while (i > 0) {
+            var parent = (i - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = value;
+    }
+
+    /**
+     * Removes the smallest value from the queue.
+     *
+     * @return the smallest value
+     * @throws IllegalStateException if the queue is empty
+     */
+    public long poll() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        var result = heap[0];
+        var last = heap[--size];
+        var i = 0;
+        var half = size >>> 1;
+        while (i < half) {
+            var child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return result;
+    }
+
+    /**
+     * {@return the smallest value without removing it}
+     *
+     * @throws IllegalStateException if the queue is empty
+     */
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * {@return the number of values in the queue}
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@return whether the queue has no values}
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@return the number of bytes occupied by the heap array}
+     */
+    public long bytesUsed() {
+        return (long) heap.length * Long.BYTES;
+    }
+
+}
@@ -1,6 +1,7 @@
 package puzzle.util;
 
 import javafx.scene.image.Image;
+import org.tinylog.Logger;
 
 public class OrdinalImageStorage implements ImageStorage<Integer> {
 
@@ -13,7 +14,7 @@ public class OrdinalImageStorage implements ImageStorage<Integer> {
             try {
                 images[i] = new Image(url);
             } catch (Exception e) {
-                // Failed to load image
+                Logger.warn("Failed to load image {}", url);
             }
         }
     }
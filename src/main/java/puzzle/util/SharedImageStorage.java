@@ -0,0 +1,122 @@
+package puzzle.util;
+
+import javafx.scene.image.Image;
+import org.tinylog.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An {@link ImageStorage} whose images are loaded in the background and shared
+ * by the whole process: every storage asking for the same resource gets the
+ * same {@link Image} object, which is decoded only once.
+ *
+ * <p>{@link #get(Integer)} returns at once, with an image that may still be
+ * loading; an {@link javafx.scene.image.ImageView} showing it is updated when
+ * loading completes. Resources that do not exist and images that fail to load
+ * are logged rather than ignored. The loaded images can also be packed into a
+ * {@link SpriteAtlas}.
+ */
+public class SharedImageStorage implements ImageStorage<Integer> {
+
+    private static final ConcurrentMap<String, SharedImage> IMAGES = new ConcurrentHashMap<>();
+
+    private final SharedImage[] images;
+
+    private CompletableFuture<SpriteAtlas> atlas;
+
+    /**
+     * An image together with a future that completes when it is loaded.
+     */
+    private record SharedImage(Image image, CompletableFuture<Image> loaded) {
+
+        static SharedImage load(String url) {
+            var image = new Image(url, true);
+            var loaded = new CompletableFuture<Image>();
+            // the listeners run on the JavaFX application thread
+            image.progressProperty().addListener((observable, oldValue, newValue) -> complete(image, loaded));
+            image.errorProperty().addListener((observable, oldValue, newValue) -> complete(image, loaded));
+            complete(image, loaded);
+            return new SharedImage(image, loaded);
+        }
+
+        private static void complete(Image image, CompletableFuture<Image> loaded) {
+            if (image.isError()) {
+                Logger.error(image.getException(), "Failed to load image {}", image.getUrl());
+                loaded.completeExceptionally(image.getException());
+            } else if (image.getProgress() >= 1) {
+                loaded.complete(image);
+            }
+        }
+
+    }
+
+    /**
+     * Creates a storage of the images specified, starting to load those that
+     * no other storage has loaded yet.
+     *
+     * @param path the path of the directory of the images on the class path
+     * @param filenames the names of the image files, in the order of their
+     *                  keys
+     */
+    public SharedImageStorage(String path, String... filenames) {
+        images = new SharedImage[filenames.length];
+        for (var i = 0; i < filenames.length; i++) {
+            var name = String.format("%s/%s", path, filenames[i]).replaceFirst("^/", "");
+            var resource = SharedImageStorage.class.getClassLoader().getResource(name);
+            if (resource == null) {
+                Logger.warn("Missing image {}", name);
+            } else {
+                images[i] = IMAGES.computeIfAbsent(resource.toExternalForm(), SharedImage::load);
+            }
+        }
+    }
+
+    /**
+     * {@return the image with the key specified, possibly still loading, or
+     * {@code null} if the image does not exist}
+     *
+     * @param key the index of an image
+     */
+    @Override
+    public Image get(Integer key) {
+        return images[key] == null ? null : images[key].image();
+    }
+
+    /**
+     * {@return a future that completes with the image with the key specified
+     * when it is loaded, or with {@code null} if the image does not exist}
+     * The future completes exceptionally if the image fails to load.
+     *
+     * @param key the index of an image
+     */
+    public CompletableFuture<Image> loaded(int key) {
+        return images[key] == null ? CompletableFuture.completedFuture(null) : images[key].loaded();
+    }
+
+    /**
+     * {@return a future that completes with the atlas of the images when all
+     * of them are loaded} The images are packed in the order of their keys,
+     * and missing ones have no viewport. The atlas is only packed once.
+     */
+    public synchronized CompletableFuture<SpriteAtlas> atlas() {
+        if (atlas == null) {
+            var loaded = Arrays.stream(images)
+                    .map(image -> image == null ? CompletableFuture.<Image>completedFuture(null) : image.loaded())
+                    .toList();
+            atlas = CompletableFuture.allOf(loaded.toArray(CompletableFuture[]::new))
+                    .thenApply(ignored -> SpriteAtlas.pack(loaded.stream().map(CompletableFuture::join).toList()));
+        }
+        return atlas;
+    }
+
+    /**
+     * {@return the number of images}
+     */
+    public int size() {
+        return images.length;
+    }
+
+}
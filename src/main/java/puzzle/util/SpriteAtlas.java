@@ -0,0 +1,127 @@
+package puzzle.util;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Several images packed into a single one. Each image is drawn by showing
+ * the atlas through the viewport of the image, for example with
+ * {@link javafx.scene.image.ImageView#setViewport(Rectangle2D)}, so that all
+ * of them share one texture.
+ *
+ * <p>The images are packed in shelves: sorted by decreasing height, they are
+ * placed left to right in rows no wider than {@link #MAX_WIDTH}, each row as
+ * high as its first image.
+ */
+public class SpriteAtlas {
+
+    /**
+     * The maximum width of the atlas, unless a single image is wider.
+     */
+    public static final int MAX_WIDTH = 2048;
+
+    private final Image image;
+
+    private final Rectangle2D[] viewports;
+
+    private SpriteAtlas(Image image, Rectangle2D[] viewports) {
+        this.image = image;
+        this.viewports = viewports;
+    }
+
+    /**
+     * {@return an atlas of the images specified} The images must have been
+     * loaded.
+     *
+     * @param images the images to pack, {@code null} elements being skipped
+     * @throws IllegalArgumentException if an image has not been loaded
+     * successfully
+     */
+    public static SpriteAtlas pack(List<Image> images) {
+        var widths = new int[images.size()];
+        var heights = new int[images.size()];
+        for (var i = 0; i < images.size(); i++) {
+            var image = images.get(i);
+            if (image != null) {
+                if (image.isError() || image.getProgress() < 1 || image.getPixelReader() == null) {
+                    throw new IllegalArgumentException("Image " + i + " is not loaded");
+                }
+                widths[i] = (int) image.getWidth();
+                heights[i] = (int) image.getHeight();
+            }
+        }
+        var viewports = layout(widths, heights);
+        var width = Arrays.stream(viewports).mapToInt(viewport -> (int) viewport.getMaxX()).max().orElse(0);
+        var height = Arrays.stream(viewports).mapToInt(viewport -> (int) viewport.getMaxY()).max().orElse(0);
+        var atlas = new WritableImage(Math.max(width, 1), Math.max(height, 1));
+        for (var i = 0; i < images.size(); i++) {
+            if (images.get(i) != null) {
+                atlas.getPixelWriter().setPixels((int) viewports[i].getMinX(), (int) viewports[i].getMinY(),
+                        widths[i], heights[i], images.get(i).getPixelReader(), 0, 0);
+            } else {
+                viewports[i] = null;
+            }
+        }
+        return new SpriteAtlas(atlas, viewports);
+    }
+
+    /**
+     * {@return the viewports of rectangles of the sizes specified, packed in
+     * shelves}
+     *
+     * @param widths the widths of the rectangles
+     * @param heights the heights of the rectangles
+     */
+    static Rectangle2D[] layout(int[] widths, int[] heights) {
+        var order = IntStream.range(0, widths.length)
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> heights[i]).reversed())
+                .toList();
+        var viewports = new Rectangle2D[widths.length];
+        var x = 0;
+        var y = 0;
+        var shelfHeight = 0;
+        for (int i : order) {
+            if (x > 0 && x + widths[i] > MAX_WIDTH) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            viewports[i] = new Rectangle2D(x, y, widths[i], heights[i]);
+            x += widths[i];
+            shelfHeight = Math.max(shelfHeight, heights[i]);
+        }
+        return viewports;
+    }
+
+    /**
+     * {@return the packed image}
+     */
+    public Image getImage() {
+        return image;
+    }
+
+    /**
+     * {@return the area of the packed image holding the image specified, or
+     * {@code null} if that image was missing}
+     *
+     * @param index the index of an image in the list it was packed from
+     */
+    public Rectangle2D getViewport(int index) {
+        return viewports[index];
+    }
+
+    /**
+     * {@return the number of images the atlas was packed from}
+     */
+    public int size() {
+        return viewports.length;
+    }
+
+}
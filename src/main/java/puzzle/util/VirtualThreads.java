@@ -0,0 +1,34 @@
+package puzzle.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads from code compiled for Java 17, which does not
+ * have them. The factory methods of {@link Executors} that create virtual
+ * threads are looked up reflectively, and platform threads are used where
+ * the runtime does not provide virtual ones.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * {@return an executor that runs every task on a new virtual thread, or a
+     * cached pool of daemon threads if the runtime has no virtual threads}
+     */
+    public static ExecutorService newExecutor() {
+        try {
+            var factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                var thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package puzzle.gui;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import puzzle.model.PuzzleState;
+import puzzle.solver.AStarSearch;
+import puzzle.solver.BreadthFirstSearch;
+import puzzle.solver.Solver;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HintEngineTest {
+
+    // stands for the FX application thread
+    ExecutorService ui = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        ui.shutdownNow();
+    }
+
+    @Test
+    void request() throws Exception {
+        try (var hints = new HintEngine(AStarSearch::new, ui)) {
+            var state = new PuzzleState();
+            var result = new CompletableFuture<Optional<int[]>>();
+            ui.submit(() -> hints.request(state, result::complete)).get();
+            var moves = result.get(10, TimeUnit.SECONDS).orElseThrow();
+            assertEquals(43, moves.length);
+            var expected = new BreadthFirstSearch().search(state).orElseThrow().getMoves().length;
+            assertEquals(expected, moves.length);
+            assertFalse(ui.submit(hints::isBusy).get());
+        }
+    }
+
+    @Test
+    void request_dropsStaleResults() throws Exception {
+        try (var hints = new HintEngine(AStarSearch::new, ui)) {
+            var stale = new AtomicInteger();
+            var latest = new CompletableFuture<Optional<int[]>>();
+            ui.submit(() -> {
+                for (var i = 0; i < 10; i++) {
+                    hints.request(new PuzzleState(), solution -> stale.incrementAndGet());
+                }
+                hints.request(new PuzzleState(), latest::complete);
+            }).get();
+            assertEquals(43, latest.get(10, TimeUnit.SECONDS).orElseThrow().length);
+            // let any stale callback that was already queued run
+            ui.submit(() -> { }).get();
+            assertEquals(0, stale.get());
+        }
+    }
+
+    @Test
+    void request_failingSolver() throws Exception {
+        Supplier<Solver> failing = () -> state -> {
+            throw new IllegalStateException("broken solver");
+        };
+        try (var hints = new HintEngine(failing, ui)) {
+            var failure = new CompletableFuture<RuntimeException>();
+            var solutions = new AtomicInteger();
+            ui.submit(() -> hints.request(new PuzzleState(), solution -> solutions.incrementAndGet(), failure::complete)).get();
+            assertEquals("broken solver", failure.get(10, TimeUnit.SECONDS).getMessage());
+            assertEquals(0, solutions.get());
+            assertFalse(ui.submit(hints::isBusy).get());
+        }
+    }
+
+    @Test
+    void cancel() throws Exception {
+        try (var hints = new HintEngine(AStarSearch::new, ui)) {
+            var calls = new AtomicInteger();
+            ui.submit(() -> {
+                hints.request(new PuzzleState(), solution -> calls.incrementAndGet());
+                hints.cancel();
+            }).get();
+            // give the cancelled search time to finish if it was not interrupted
+            Thread.sleep(200);
+            ui.submit(() -> { }).get();
+            assertEquals(0, calls.get());
+        }
+    }
+
+}
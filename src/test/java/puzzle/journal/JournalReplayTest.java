@@ -0,0 +1,99 @@
+package puzzle.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.Direction;
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.solver.BreadthFirstSearch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalReplayTest {
+
+    @Test
+    void replay_solution(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("session.journal");
+        var state = new PuzzleState();
+        var moves = new BreadthFirstSearch().search(state).get().getMoves();
+        try (var journal = MoveJournal.create(path, state.getPacked())) {
+            for (var move : moves) {
+                journal.append(move);
+            }
+        }
+        var statistics = JournalReplay.replay(path);
+        assertEquals(state.getPacked(), statistics.start());
+        assertTrue(PackedState.isGoal(statistics.end()));
+        assertEquals(moves.length, statistics.moveCount());
+        assertEquals(moves.length + 1, statistics.distinctStateCount());
+        assertEquals(0, statistics.undoCount());
+        assertEquals(moves.length, statistics.solvedAfter());
+        assertTrue(statistics.isSolved());
+        assertEquals(statistics, JournalReplay.replay(ByteBuffer.wrap(Files.readAllBytes(path))));
+    }
+
+    @Test
+    void replay_randomWalk(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("session.journal");
+        var start = new PuzzleState().getPacked();
+        var state = start;
+        var random = new Random(42);
+        var successors = new int[PackedState.MOVES];
+        var last = -1;
+        var undos = 0;
+        try (var journal = MoveJournal.create(path, start)) {
+            for (var i = 0; i < 100_000; i++) {
+                var move = successors[random.nextInt(MoveGenerator.successors(state, successors))];
+                if (move == (last ^ 2)) {
+                    undos++;
+                }
+                journal.append(move);
+                state = PackedState.move(state, move);
+                last = move;
+            }
+        }
+        var statistics = JournalReplay.replay(path);
+        assertEquals(100_000, statistics.moveCount());
+        assertEquals(state, statistics.end());
+        assertEquals(undos, statistics.undoCount());
+        assertTrue(statistics.distinctStateCount() > 1);
+    }
+
+    @Test
+    void replay_empty(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("session.journal");
+        var start = new PuzzleState().getPacked();
+        MoveJournal.create(path, start).close();
+        var statistics = JournalReplay.replay(path);
+        assertEquals(start, statistics.end());
+        assertEquals(0, statistics.moveCount());
+        assertEquals(1, statistics.distinctStateCount());
+        assertFalse(statistics.isSolved());
+    }
+
+    @Test
+    void replay_shouldThrowJournalFormatException(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("session.journal");
+        Files.write(path, new byte[10]);
+        assertThrows(JournalFormatException.class, () -> JournalReplay.replay(path));
+        Files.write(path, new byte[JournalFile.HEADER_SIZE]);
+        assertThrows(JournalFormatException.class, () -> JournalReplay.replay(path));
+
+        MoveJournal.create(path, new PuzzleState().getPacked()).close();
+        Files.write(path, new byte[] {(byte) PackedState.moveOf(PuzzleState.SQUARE, Direction.UP)}, StandardOpenOption.APPEND);
+        assertThrows(JournalFormatException.class, () -> JournalReplay.replay(path));
+
+        MoveJournal.create(path, new PuzzleState().getPacked()).close();
+        Files.write(path, new byte[] {(byte) PackedState.MOVES}, StandardOpenOption.APPEND);
+        assertThrows(JournalFormatException.class, () -> JournalReplay.replay(path));
+    }
+
+}
@@ -0,0 +1,51 @@
+package puzzle.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    @Test
+    void append(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("session.journal");
+        var start = new PuzzleState().getPacked();
+        try (var journal = MoveJournal.create(path, start)) {
+            journal.append(PuzzleState.BOTTOMRIGHT, Direction.RIGHT);
+            journal.append(PackedState.moveOf(PuzzleState.BOTTOMRIGHT, Direction.LEFT));
+            assertEquals(2, journal.getMoveCount());
+            assertEquals(start, journal.getState());
+        }
+        var bytes = Files.readAllBytes(path);
+        assertEquals(JournalFile.HEADER_SIZE + 2, bytes.length);
+        assertEquals(PackedState.moveOf(PuzzleState.BOTTOMRIGHT, Direction.RIGHT), bytes[JournalFile.HEADER_SIZE]);
+        var header = JournalFile.decode(ByteBuffer.wrap(bytes), path);
+        assertEquals(start, header.start());
+        assertTrue(header.startMillis() > 0);
+    }
+
+    @Test
+    void append_shouldThrowIllegalArgumentException(@TempDir Path directory) throws IOException {
+        try (var journal = MoveJournal.create(directory.resolve("session.journal"), new PuzzleState().getPacked())) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(PuzzleState.SQUARE, Direction.UP));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(PackedState.MOVES));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(-1));
+            assertEquals(0, journal.getMoveCount());
+        }
+    }
+
+    @Test
+    void create_shouldThrowIllegalArgumentException(@TempDir Path directory) {
+        assertThrows(IllegalArgumentException.class, () -> MoveJournal.create(directory.resolve("session.journal"), -1L));
+    }
+
+}
@@ -0,0 +1,124 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import puzzle.util.LongHashSet;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPuzzleTest {
+
+    CompiledPuzzle puzzle = CompiledPuzzle.compile(PuzzleDefinition.defaultDefinition());
+
+    @Test
+    void compile_defaultDefinition() {
+        assertEquals(PackedState.PIECES, puzzle.pieces());
+        assertEquals(PackedState.MOVES, puzzle.moves());
+        assertEquals(PackedState.CELL_BITS, puzzle.cellBits());
+        assertEquals(new PuzzleState().getPacked(), puzzle.start());
+        assertEquals(new PuzzleState().toString(), puzzle.toString(puzzle.start()));
+    }
+
+    @Test
+    void successors_agreeWithMoveGenerator() {
+        // every state reachable from the initial state
+        var seen = new LongHashSet();
+        var queue = new ArrayDeque<Long>();
+        seen.add(puzzle.start());
+        queue.add(puzzle.start());
+        var expected = new int[PackedState.MOVES];
+        var actual = new int[PackedState.MOVES];
+        while (!queue.isEmpty()) {
+            long state = queue.poll();
+            var count = MoveGenerator.successors(state, expected);
+            assertEquals(count, puzzle.successors(state, actual));
+            for (var i = 0; i < count; i++) {
+                assertEquals(expected[i], actual[i]);
+                var child = puzzle.move(state, actual[i]);
+                assertEquals(PackedState.move(state, expected[i]), child);
+                if (seen.add(child)) {
+                    queue.add(child);
+                }
+            }
+            assertEquals(PackedState.isGoal(state), puzzle.isGoal(state));
+        }
+        assertEquals(5499, seen.size());
+    }
+
+    @Test
+    void predecessors() {
+        var random = new Random(1);
+        var moves = new int[PackedState.MOVES];
+        var parentMoves = new int[PackedState.MOVES];
+        for (var i = 0; i < 100_000; i++) {
+            var state = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                state = PackedState.withCell(state, tile, random.nextInt(PackedState.CELLS));
+            }
+            if (!PackedState.isValid(state)) {
+                continue;
+            }
+            assertEquals(PackedState.fitsOnBoard(state), puzzle.fitsOnBoard(state));
+            // exactly the valid states whose legal moves lead to the state
+            var count = puzzle.predecessors(state, moves);
+            for (var move = 0; move < PackedState.MOVES; move++) {
+                var tile = PackedState.tileOf(move);
+                var direction = PackedState.directionOf(move);
+                var row = PackedState.row(state, tile) - direction.getRowChange();
+                var col = PackedState.col(state, tile) - direction.getColChange();
+                var parent = puzzle.move(state, move ^ 2);
+                var code = move;
+                var expected = row >= 0 && row < PuzzleState.BOARD_HEIGHT && col >= 0 && col < PuzzleState.BOARD_WIDTH
+                        && PackedState.isValid(parent)
+                        && IntStream.of(parentMoves).limit(puzzle.successors(parent, parentMoves)).anyMatch(m -> m == code);
+                assertEquals(expected, IntStream.of(moves).limit(count).anyMatch(m -> m == code));
+            }
+        }
+    }
+
+    @Test
+    void isGoal_agreesWithPackedState() {
+        for (var goal : PackedState.goals()) {
+            assertTrue(puzzle.isGoal(goal));
+        }
+        var random = new Random(1);
+        for (var i = 0; i < 100_000; i++) {
+            var state = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                state = PackedState.withCell(state, tile, random.nextInt(PackedState.CELLS));
+            }
+            assertEquals(PackedState.isGoal(state), puzzle.isGoal(state));
+        }
+    }
+
+    @Test
+    void compile_absoluteGoal() {
+        var small = CompiledPuzzle.compile(PuzzleDefinition.parse(PuzzleDefinitionTest.SMALL));
+        assertEquals(3, small.cellBits());
+        assertFalse(small.isGoal(small.start()));
+        var moves = new int[small.moves()];
+        // only the horizontal domino can move, down
+        assertEquals(1, small.successors(small.start(), moves));
+        assertEquals(PackedState.moveOf(0, Direction.DOWN), moves[0]);
+        var state = small.move(small.start(), moves[0]);
+        assertEquals("[(1,0),(0,2)]", small.toString(state));
+        // move the vertical domino left twice
+        state = small.move(small.move(state, PackedState.moveOf(1, Direction.LEFT)), PackedState.moveOf(1, Direction.LEFT));
+        assertTrue(small.isGoal(state));
+    }
+
+    @Test
+    void compile_shouldThrowIllegalArgumentException() {
+        var tooBig = PuzzleDefinition.parse("""
+                board 9 9
+                piece A 0,0
+                start A 0,0
+                goal A *
+                """);
+        assertThrows(IllegalArgumentException.class, () -> CompiledPuzzle.compile(tooBig));
+    }
+
+}
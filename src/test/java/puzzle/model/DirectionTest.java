@@ -15,6 +15,14 @@ class DirectionTest {
         assertSame(Direction.LEFT, Direction.of(0, -1));
     }
 
+    @Test
+    void opposite() {
+        assertSame(Direction.DOWN, Direction.UP.opposite());
+        assertSame(Direction.LEFT, Direction.RIGHT.opposite());
+        assertSame(Direction.UP, Direction.DOWN.opposite());
+        assertSame(Direction.RIGHT, Direction.LEFT.opposite());
+    }
+
     @Test
     void of_shouldThrowIllegalArgumentException() {
         assertThrows(IllegalArgumentException.class, () -> Direction.of(0, 0));
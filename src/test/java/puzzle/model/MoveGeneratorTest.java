@@ -0,0 +1,84 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveGeneratorTest {
+
+    long state1 = new PuzzleState().getPacked(); // the original initial state
+
+    @Test
+    void occupancy() {
+        var occupancy = MoveGenerator.occupancy(state1);
+        assertNotEquals(0, occupancy & MoveGenerator.WALL);
+        for (var row = 0; row < PuzzleState.BOARD_HEIGHT; row++) {
+            for (var col = 0; col < PuzzleState.BOARD_WIDTH; col++) {
+                var bit = 1 << (row * PuzzleState.BOARD_WIDTH + col);
+                assertEquals(PackedState.isFree(state1, row, col), (occupancy & bit) == 0);
+            }
+        }
+    }
+
+    @Test
+    void pieceMask() {
+        assertEquals(0b11 | 0b11 << PuzzleState.BOARD_WIDTH, MoveGenerator.pieceMask(PuzzleState.SQUARE, 0));
+        assertEquals(0b11 | 0b10 << PuzzleState.BOARD_WIDTH, MoveGenerator.pieceMask(PuzzleState.TOPRIGHT, 0));
+        // only the cells on the board are covered
+        assertEquals(1 << (PackedState.CELLS - 1), MoveGenerator.pieceMask(PuzzleState.SQUARE, PackedState.CELLS - 1));
+    }
+
+    @Test
+    void canMove_agreesWithPackedState() {
+        var random = new Random(1);
+        var checked = 0;
+        while (checked < 100_000) {
+            var state = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                state = PackedState.withCell(state, tile, random.nextInt(PackedState.CELLS));
+            }
+            if (!PackedState.isValid(state)) {
+                continue;
+            }
+            var occupancy = MoveGenerator.occupancy(state);
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                for (var direction : Direction.values()) {
+                    var expected = PackedState.canMove(state, tile, direction);
+                    assertEquals(expected, MoveGenerator.canMove(state, occupancy, tile, direction));
+                    assertEquals(expected, MoveGenerator.canMove(state, occupancy, PackedState.moveOf(tile, direction)));
+                }
+            }
+            checked++;
+        }
+    }
+
+    @Test
+    void move() {
+        var occupancy = MoveGenerator.occupancy(state1);
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            for (var direction : Direction.values()) {
+                if (MoveGenerator.canMove(state1, occupancy, tile, direction)) {
+                    var child = PackedState.move(state1, tile, direction);
+                    assertEquals(MoveGenerator.occupancy(child), MoveGenerator.move(state1, occupancy, tile, direction));
+                }
+            }
+        }
+    }
+
+    @Test
+    void successors() {
+        var moves = new int[PackedState.MOVES];
+        var count = MoveGenerator.successors(state1, moves);
+        var expected = 0;
+        for (var move = 0; move < PackedState.MOVES; move++) {
+            if (PackedState.canMove(state1, PackedState.tileOf(move), PackedState.directionOf(move))) {
+                assertEquals(move, moves[expected++]);
+            }
+        }
+        assertEquals(expected, count);
+        assertTrue(count > 0);
+    }
+
+}
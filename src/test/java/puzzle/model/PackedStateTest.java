@@ -0,0 +1,124 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedStateTest {
+
+    long state1 = new PuzzleState().getPacked(); // the original initial state
+
+    long state2 = PackedState.of(new Position(1, 1),
+            new Position(0, 0),
+            new Position(0, 2),
+            new Position(2, 0),
+            new Position(2, 2)); // a goal state
+
+    @Test
+    void of() {
+        assertEquals(4, PackedState.cell(state1, PuzzleState.SQUARE));
+        assertEquals(new Position(0, 4), PackedState.position(state1, PuzzleState.SQUARE));
+        assertEquals(new Position(2, 2), PackedState.position(state1, PuzzleState.BOTTOMRIGHT));
+        assertEquals(2, PackedState.row(state1, PuzzleState.BOTTOMLEFT));
+        assertEquals(2, PackedState.col(state1, PuzzleState.TOPRIGHT));
+    }
+
+    @Test
+    void of_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> PackedState.of(new Position(0, 0)));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.of(new Position(0, 6),
+                new Position(0, 0),
+                new Position(0, 2),
+                new Position(2, 0),
+                new Position(2, 2)));
+    }
+
+    @Test
+    void move() {
+        var moved = PackedState.move(state1, PuzzleState.SQUARE, Direction.DOWN);
+        assertEquals(new Position(1, 4), PackedState.position(moved, PuzzleState.SQUARE));
+        assertEquals(state1, PackedState.move(moved, PuzzleState.SQUARE, Direction.UP));
+        for (var tile = 1; tile < PackedState.PIECES; tile++) {
+            assertEquals(PackedState.cell(state1, tile), PackedState.cell(moved, tile));
+        }
+    }
+
+    @Test
+    void canMove() {
+        for (var tile = 0; tile < PackedState.PIECES; tile++) {
+            for (var direction : Direction.values()) {
+                assertEquals(new PuzzleState(state1).canMove(tile, direction),
+                        PackedState.canMove(state1, tile, direction));
+            }
+        }
+        assertTrue(PackedState.canMove(state1, PuzzleState.SQUARE, Direction.DOWN));
+        assertFalse(PackedState.canMove(state1, PuzzleState.SQUARE, Direction.LEFT));
+        assertTrue(PackedState.canMove(state1, PuzzleState.BOTTOMRIGHT, Direction.RIGHT));
+    }
+
+    @Test
+    void predecessor() {
+        var moved = PackedState.move(state1, PuzzleState.SQUARE, Direction.DOWN);
+        assertEquals(state1, PackedState.predecessor(moved, PuzzleState.SQUARE, Direction.DOWN));
+        assertEquals(-1, PackedState.predecessor(state1, PuzzleState.BOTTOMLEFT, Direction.DOWN)); // would overlap
+        assertEquals(-1, PackedState.predecessor(state1, PuzzleState.TOPLEFT, Direction.RIGHT)); // off the board
+    }
+
+    @Test
+    void isGoal() {
+        assertFalse(PackedState.isGoal(state1));
+        assertTrue(PackedState.isGoal(state2));
+        assertFalse(PackedState.isGoal(PackedState.move(state2, PuzzleState.BOTTOMRIGHT, Direction.RIGHT)));
+    }
+
+    @Test
+    void isValid() {
+        assertTrue(PackedState.isValid(state1));
+        assertTrue(PackedState.isValid(state2));
+        assertFalse(PackedState.isValid(PackedState.withCell(state1, PuzzleState.SQUARE, 0)));
+        assertFalse(PackedState.isValid(PackedState.withCell(state1, PuzzleState.SQUARE, 31)));
+    }
+
+    @Test
+    void fitsOnBoard() {
+        assertTrue(PackedState.fitsOnBoard(state1));
+        assertTrue(PackedState.fitsOnBoard(state2));
+        assertFalse(PackedState.fitsOnBoard(PackedState.withCell(state1, PuzzleState.SQUARE, 5)));
+        assertFalse(PackedState.fitsOnBoard(PackedState.withCell(state1, PuzzleState.SQUARE, 18)));
+    }
+
+    @Test
+    void goals() {
+        var goals = PackedState.goals();
+        assertEquals(8, goals.length);
+        for (var goal : goals) {
+            assertTrue(PackedState.isGoal(goal));
+            assertTrue(PackedState.isValid(goal));
+        }
+        assertTrue(Arrays.stream(goals).anyMatch(goal -> goal == state2));
+    }
+
+    @Test
+    void isFree() {
+        assertTrue(PackedState.isFree(state1, 1, 2));
+        assertFalse(PackedState.isFree(state1, 1, 3));
+        assertFalse(PackedState.isFree(state1, 0, 4));
+        assertTrue(PackedState.isFree(state1, 2, 2)); // the empty corner of the bottom right corner-tile
+        assertTrue(PackedState.isFree(state1, -1, 0));
+    }
+
+    @Test
+    void hash() {
+        assertEquals(PackedState.hash(state1), PackedState.hash(state1));
+        assertNotEquals(PackedState.hash(state1), PackedState.hash(state2));
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("[(0,4),(0,0),(0,2),(2,0),(2,2)]", PackedState.toString(state1));
+        assertEquals(new PuzzleState().toString(), PackedState.toString(state1));
+    }
+
+}
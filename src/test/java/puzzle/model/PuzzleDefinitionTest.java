@@ -0,0 +1,83 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleDefinitionTest {
+
+    static final String SMALL = """
+            # two dominoes on a 2x3 board
+            board 2 3
+            piece A 0,0 0,1
+            piece B 0,0 1,0
+            start A 0,0
+            start B 0,2
+            goal B 0,0
+            """;
+
+    @Test
+    void defaultDefinition() {
+        var definition = PuzzleDefinition.defaultDefinition();
+        assertEquals(PuzzleState.BOARD_HEIGHT, definition.height());
+        assertEquals(PuzzleState.BOARD_WIDTH, definition.width());
+        assertEquals(5, definition.pieces().size());
+        assertEquals(PuzzleState.SQUARE, definition.indexOf("SQUARE"));
+        assertEquals(PuzzleState.BOTTOMRIGHT, definition.indexOf("BOTTOMRIGHT"));
+        assertEquals(List.of(new Position(0, 1), new Position(1, 0), new Position(1, 1)),
+                definition.pieces().get(PuzzleState.BOTTOMRIGHT).cells());
+        var state = new PuzzleState();
+        for (var piece = 0; piece < 5; piece++) {
+            assertEquals(state.getPosition(piece), definition.start().get(piece));
+        }
+        assertEquals(PuzzleState.SQUARE, definition.goal().reference());
+        assertNull(definition.goal().position());
+        assertEquals(new Position(-1, 1), definition.goal().offsets().get(PuzzleState.TOPRIGHT));
+    }
+
+    @Test
+    void parse() {
+        var definition = PuzzleDefinition.parse(SMALL);
+        assertEquals(2, definition.height());
+        assertEquals(3, definition.width());
+        assertEquals("B", definition.pieces().get(1).name());
+        assertEquals(new Position(0, 2), definition.start().get(1));
+        assertEquals(1, definition.goal().reference());
+        assertEquals(new Position(0, 0), definition.goal().position());
+        assertNull(definition.goal().offsets().get(0));
+        assertThrows(IllegalArgumentException.class, () -> definition.indexOf("C"));
+    }
+
+    @Test
+    void load(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("small.puzzle");
+        Files.writeString(path, SMALL);
+        assertEquals(PuzzleDefinition.parse(SMALL), PuzzleDefinition.load(path));
+    }
+
+    @Test
+    void parse_shouldThrowIllegalArgumentException() {
+        // unknown keyword
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL + "rotate A\n"));
+        // missing start
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("start B 0,2", "")));
+        // missing goal
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("goal B 0,0", "")));
+        // overlapping pieces
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("start B 0,2", "start B 0,1")));
+        // piece off the board
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("start A 0,0", "start A 1,2")));
+        // goal off the board
+        assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("goal B 0,0", "goal B 2,0")));
+        // malformed position
+        var e = assertThrows(IllegalArgumentException.class, () -> PuzzleDefinition.parse(SMALL.replace("0,1", "0;1")));
+        assertTrue(e.getMessage().startsWith("Line 3"));
+    }
+
+}
@@ -2,7 +2,9 @@ package puzzle.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -77,6 +79,28 @@ class PuzzleStateTest {
         assertFalse(state4.isGoal());
     }
 
+    @Test
+    void goalProperty() {
+        var state = state2.clone();
+        var goal = state.goalProperty();
+        assertTrue(goal.get());
+        var changes = new ArrayList<Boolean>();
+        goal.addListener((observable, oldValue, newValue) -> changes.add(newValue));
+        var moves = new int[PackedState.MOVES];
+        state.getLegalMoves(moves);
+        var tile = PackedState.tileOf(moves[0]);
+        var direction = PackedState.directionOf(moves[0]);
+        var back = direction.opposite();
+        state.move(tile, direction);
+        assertFalse(goal.get());
+        state.move(tile, back);
+        state.move(tile, direction);
+        state.move(tile, back);
+        assertTrue(goal.get());
+        assertEquals(List.of(false, true, false, true), changes);
+        assertFalse(state1.goalProperty().get());
+    }
+
     @Test
     void canMove_state1() {
         assertFalse(state1.canMove(PuzzleState.SQUARE, Direction.UP));
@@ -178,6 +202,23 @@ class PuzzleStateTest {
         assertNotSame(clone, state1);
     }
 
+    @Test
+    void parse() {
+        assertEquals(state1, PuzzleState.parse(state1.toString()));
+        assertEquals(state3, PuzzleState.parse(" [(2,4), (0,0), (0,2), (2,0), (0,4)] "));
+        assertEquals(state4, PuzzleState.parse(state4.toString()));
+    }
+
+    @Test
+    void parse_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse("[(0,4),(0,0),(0,2),(2,0)]"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse("[(0,4),(0,0),(0,2),(2,0),(2,2)"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse("[(0,4)(0,0),(0,2),(2,0),(2,2)]"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse("[(0,4),(0,0),(0,2),(2,0),(2,9)]"));
+        assertThrows(IllegalArgumentException.class, () -> PuzzleState.parse("[(0,0),(0,0),(0,2),(2,0),(2,2)]"));
+    }
+
 //    @Test
 //    void testToString() {
 //        assertEquals("[(0,0),(2,0),(1,1),(0,2)]", state1.toString());
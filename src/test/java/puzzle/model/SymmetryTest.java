@@ -0,0 +1,99 @@
+package puzzle.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetryTest {
+
+    static long randomState(Random random) {
+        while (true) {
+            var state = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                var row = random.nextInt(PuzzleState.BOARD_HEIGHT - 1);
+                var col = random.nextInt(PuzzleState.BOARD_WIDTH - 1);
+                state = PackedState.withCell(state, tile, row * PuzzleState.BOARD_WIDTH + col);
+            }
+            try {
+                new PuzzleState(state);
+                return state;
+            } catch (IllegalArgumentException e) {
+                // overlapping pieces
+            }
+        }
+    }
+
+    @Test
+    void apply() {
+        var start = new PuzzleState().getPacked();
+        var mirrored = Symmetry.apply(start, Symmetry.MIRROR_LEFT_RIGHT);
+        assertEquals(new PuzzleState(new Position(0, 0),
+                new Position(0, 2),
+                new Position(0, 4),
+                new Position(2, 2),
+                new Position(2, 4)).getPacked(), mirrored);
+        assertEquals(start, Symmetry.apply(start, Symmetry.IDENTITY));
+        var random = new Random(0);
+        for (var i = 0; i < 1000; i++) {
+            var state = randomState(random);
+            for (var symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                var image = Symmetry.apply(state, symmetry);
+                // a valid state, mapped back by the same symmetry
+                assertDoesNotThrow(() -> new PuzzleState(image));
+                assertEquals(state, Symmetry.apply(image, symmetry));
+                assertEquals(Symmetry.apply(Symmetry.apply(state, Symmetry.MIRROR_LEFT_RIGHT), Symmetry.MIRROR_TOP_BOTTOM),
+                        Symmetry.apply(state, Symmetry.ROTATE_HALF));
+                assertEquals(PackedState.isGoal(state), PackedState.isGoal(image));
+            }
+        }
+    }
+
+    @Test
+    void applyToMove() {
+        var random = new Random(1);
+        var moves = new int[PackedState.MOVES];
+        var imageMoves = new int[PackedState.MOVES];
+        for (var i = 0; i < 1000; i++) {
+            var state = randomState(random);
+            var count = MoveGenerator.successors(state, moves);
+            for (var symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                var image = Symmetry.apply(state, symmetry);
+                assertEquals(count, MoveGenerator.successors(image, imageMoves));
+                var expected = Arrays.copyOf(imageMoves, count);
+                var actual = new int[count];
+                for (var k = 0; k < count; k++) {
+                    actual[k] = Symmetry.applyToMove(moves[k], symmetry);
+                    assertEquals(Symmetry.apply(PackedState.move(state, moves[k]), symmetry),
+                            PackedState.move(image, actual[k]));
+                }
+                Arrays.sort(actual);
+                assertArrayEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    void canonical() {
+        var random = new Random(2);
+        for (var i = 0; i < 1000; i++) {
+            var state = randomState(random);
+            var canonical = Symmetry.canonical(state);
+            assertTrue(canonical <= state);
+            for (var symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+                assertEquals(canonical, Symmetry.canonical(Symmetry.apply(state, symmetry)));
+            }
+            assertEquals(canonical, Symmetry.apply(state, Symmetry.canonicalSymmetry(state)));
+        }
+    }
+
+    @Test
+    void symmetryBetween_shouldThrowIllegalArgumentException() {
+        var start = new PuzzleState().getPacked();
+        assertThrows(IllegalArgumentException.class,
+                () -> Symmetry.symmetryBetween(start, PackedState.goals()[0]));
+    }
+
+}
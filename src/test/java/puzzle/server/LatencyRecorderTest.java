@@ -0,0 +1,41 @@
+package puzzle.server;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyRecorderTest {
+
+    @Test
+    void percentile() {
+        var recorder = new LatencyRecorder(100);
+        assertEquals(0, recorder.percentile(50));
+        for (var i = 100; i >= 1; i--) {
+            recorder.record(i);
+        }
+        assertEquals(100, recorder.count());
+        assertEquals(50, recorder.percentile(50));
+        assertEquals(99, recorder.percentile(99));
+        assertEquals(100, recorder.percentile(100));
+        assertEquals(1, recorder.percentile(0.1));
+    }
+
+    @Test
+    void percentile_keepsMostRecentSamples() {
+        var recorder = new LatencyRecorder(10);
+        for (var i = 1; i <= 1000; i++) {
+            recorder.record(i);
+        }
+        assertEquals(1000, recorder.count());
+        assertEquals(991, recorder.percentile(1));
+        assertEquals(1000, recorder.percentile(99));
+    }
+
+    @Test
+    void percentile_shouldThrowIllegalArgumentException() {
+        var recorder = new LatencyRecorder(10);
+        assertThrows(IllegalArgumentException.class, () -> recorder.percentile(0));
+        assertThrows(IllegalArgumentException.class, () -> recorder.percentile(101));
+    }
+
+}
@@ -0,0 +1,49 @@
+package puzzle.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionCacheTest {
+
+    @Test
+    void get() {
+        var cache = new SolutionCache(2);
+        var computed = new AtomicInteger();
+        LongFunction<Optional<int[]>> solver = state -> {
+            computed.incrementAndGet();
+            return state == 0 ? Optional.empty() : Optional.of(new int[] {(int) state});
+        };
+        assertArrayEquals(new int[] {1}, cache.get(1, solver).orElseThrow());
+        assertTrue(cache.get(0, solver).isEmpty());
+        assertArrayEquals(new int[] {1}, cache.get(1, solver).orElseThrow());
+        assertTrue(cache.get(0, solver).isEmpty());
+        assertEquals(2, computed.get());
+        assertEquals(2, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(0.5, cache.hitRate());
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsed() {
+        var cache = new SolutionCache(2);
+        cache.get(1, state -> Optional.empty());
+        cache.get(2, state -> Optional.empty());
+        cache.get(1, state -> Optional.empty());
+        cache.get(3, state -> Optional.empty());
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains(1));
+        assertFalse(cache.contains(2));
+        assertTrue(cache.contains(3));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new SolutionCache(0));
+    }
+
+}
@@ -0,0 +1,127 @@
+package puzzle.server;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import puzzle.model.PuzzleState;
+import puzzle.solver.AStarSearch;
+import puzzle.solver.Solver;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolverServerTest {
+
+    SolverServer server;
+
+    HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new SolverServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), AStarSearch::new, 16);
+        server.start();
+    }
+
+    @AfterEach
+    void stop() {
+        server.close();
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+
+    HttpResponse<String> get(String state) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(uri("/solve?state=" + URLEncoder.encode(state, StandardCharsets.UTF_8)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    void solve() throws Exception {
+        var state = new PuzzleState().toString();
+        var first = get(state);
+        assertEquals(200, first.statusCode());
+        assertTrue(first.body().contains("\"length\":43"));
+        assertTrue(first.body().contains("\"cached\":false"));
+        assertTrue(first.body().startsWith("{\"state\":\"" + state + "\""));
+        var second = get(state);
+        assertTrue(second.body().contains("\"cached\":true"));
+        assertEquals(first.body().replace("false", "true"), second.body());
+        assertEquals(1, server.getCache().hits());
+        assertEquals(1, server.getCache().misses());
+    }
+
+    @Test
+    void solve_post() throws Exception {
+        var goal = "[(1,1),(0,0),(0,2),(2,0),(2,2)]";
+        var request = HttpRequest.newBuilder(uri("/solve"))
+                .POST(HttpRequest.BodyPublishers.ofString(goal))
+                .build();
+        var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"state\":\"" + goal + "\",\"length\":0,\"moves\":[],\"cached\":false}", response.body());
+    }
+
+    @Test
+    void solve_invalidState() throws Exception {
+        var response = get("[(0,0),(0,0)]");
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().startsWith("{\"error\":"));
+        var missing = client.send(HttpRequest.newBuilder(uri("/solve")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, missing.statusCode());
+        var delete = client.send(HttpRequest.newBuilder(uri("/solve")).DELETE().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(405, delete.statusCode());
+    }
+
+    @Test
+    void solve_failingSolver() throws Exception {
+        Solver failing = state -> {
+            throw new IllegalStateException("broken solver");
+        };
+        try (var broken = new SolverServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), () -> failing, 16)) {
+            broken.start();
+            var state = URLEncoder.encode(new PuzzleState().toString(), StandardCharsets.UTF_8);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + broken.getPort() + "/solve?state=" + state))
+                    .build();
+            var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(500, response.statusCode());
+            assertTrue(response.body().startsWith("{\"error\":"));
+            assertTrue(response.body().contains("broken solver"));
+            // failures are not cached
+            assertEquals(0, broken.getCache().size());
+        }
+    }
+
+    @Test
+    void stats() throws Exception {
+        var state = URLEncoder.encode(new PuzzleState().toString(), StandardCharsets.UTF_8);
+        var responses = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+        for (var i = 0; i < 20; i++) {
+            var request = HttpRequest.newBuilder(uri("/solve?state=" + state)).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (var response : responses) {
+            assertEquals(200, response.join().statusCode());
+        }
+        var stats = client.send(HttpRequest.newBuilder(uri("/stats")).build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, stats.statusCode());
+        assertEquals(20, server.getCache().hits() + server.getCache().misses());
+        assertTrue(server.getCache().hits() > 0);
+        assertTrue(server.getLatencies().percentile(99) >= server.getLatencies().percentile(50));
+        assertTrue(stats.body().matches("\\{\"requests\":\\d+,\"hits\":\\d+,\"misses\":\\d+,\"hitRate\":[0-9.]+,\"p50Micros\":\\d+,\"p99Micros\":\\d+}"));
+    }
+
+}
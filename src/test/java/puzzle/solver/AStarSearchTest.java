@@ -0,0 +1,37 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PuzzleState;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AStarSearchTest {
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state).get();
+        var actual = new AStarSearch().search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(BreadthFirstSearchTest.length(expected), BreadthFirstSearchTest.length(actual.get()));
+    }
+
+    @Test
+    void search_expandsFewerStates() {
+        var bfs = new BreadthFirstSearch();
+        var astar = new AStarSearch();
+        bfs.search(new PuzzleState());
+        astar.search(new PuzzleState());
+        assertTrue(astar.getExpandedCount() < bfs.getExpandedCount());
+    }
+
+}
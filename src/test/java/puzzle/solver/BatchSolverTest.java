@@ -0,0 +1,145 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSolverTest {
+
+    @Test
+    void solve() throws Exception {
+        var states = BidirectionalSearchTest.stateProvider().toList();
+        var input = new StringBuilder("# start states\n\n");
+        for (var state : states) {
+            input.append(state).append('\n');
+        }
+        input.append("not a state\n");
+        var out = new StringWriter();
+        var count = new BatchSolver(BreadthFirstSearch::new, 3)
+                .solve(new BufferedReader(new StringReader(input.toString())), out);
+        assertEquals(states.size() + 1, count);
+        var lines = Arrays.stream(out.toString().split(System.lineSeparator()))
+                .map(line -> line.split("\t", -1))
+                .sorted(Comparator.comparingInt(fields -> Integer.parseInt(fields[0])))
+                .toList();
+        assertEquals(states.size() + 1, lines.size());
+        for (var i = 0; i < states.size(); i++) {
+            var fields = lines.get(i);
+            assertEquals(6, fields.length);
+            assertEquals(String.valueOf(i + 3), fields[0]);
+            assertEquals(states.get(i).toString(), fields[1]);
+            var expected = BidirectionalSearchTest.states(new BreadthFirstSearch().search(states.get(i)).orElseThrow());
+            assertEquals(expected.size() - 1, Integer.parseInt(fields[2]));
+            assertTrue(Long.parseLong(fields[4]) >= 0);
+            var moves = fields[5].isEmpty() ? new String[0] : fields[5].split(" ");
+            assertEquals(expected.size() - 1, moves.length);
+            // replaying the moves visits the states of the path
+            var state = states.get(i).clone();
+            for (var k = 0; k < moves.length; k++) {
+                var move = moves[k].split(":");
+                state.move(Integer.parseInt(move[0]), Direction.valueOf(move[1]));
+                assertEquals(expected.get(k + 1), state);
+            }
+        }
+        var invalid = lines.get(states.size());
+        assertEquals("not a state", invalid[1]);
+        assertEquals("invalid", invalid[2]);
+    }
+
+    @Test
+    void solve_manyStates() throws Exception {
+        var line = new PuzzleState().toString();
+        var input = (line + "\n").repeat(200);
+        var out = new StringWriter();
+        var count = new BatchSolver(AStarSearch::new, 4)
+                .solve(new BufferedReader(new StringReader(input)), out);
+        assertEquals(200, count);
+        var lengths = Arrays.stream(out.toString().split(System.lineSeparator()))
+                .map(result -> result.split("\t")[2])
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("43"), lengths);
+    }
+
+    @Test
+    void solve_failingSearch() throws Exception {
+        var start = new PuzzleState();
+        var other = BidirectionalSearchTest.stateProvider().filter(state -> !state.equals(start)).findFirst().orElseThrow();
+        var input = start + "\n" + other + "\n";
+        var out = new StringWriter();
+        Solver failing = state -> {
+            if (!state.equals(start)) {
+                throw new IllegalStateException("broken solver");
+            }
+            return new AStarSearch().solve(state);
+        };
+        var batch = new BatchSolver(() -> failing, 2);
+        var count = batch.solve(new BufferedReader(new StringReader(input)), out);
+        assertEquals(2, count);
+        assertEquals(1, batch.getFailureCount());
+        var lines = Arrays.stream(out.toString().split(System.lineSeparator()))
+                .map(line -> line.split("\t", -1))
+                .sorted(Comparator.comparingInt(fields -> Integer.parseInt(fields[0])))
+                .toList();
+        assertEquals(2, lines.size());
+        assertEquals("43", lines.get(0)[2]);
+        assertEquals("error", lines.get(1)[2]);
+        assertTrue(lines.get(1)[3].contains("broken solver"));
+    }
+
+    @Test
+    void solve_streamsResults() throws Exception {
+        var start = new PuzzleState();
+        var other = BidirectionalSearchTest.stateProvider().filter(state -> !state.equals(start)).findFirst().orElseThrow();
+        var input = start + "\n" + other + "\n";
+        var release = new CountDownLatch(1);
+        Solver blocking = state -> {
+            if (!state.equals(start)) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new CancellationException();
+                }
+            }
+            return new AStarSearch().solve(state);
+        };
+        var sink = new StringWriter();
+        var batch = new BatchSolver(() -> blocking, 2);
+        var executor = Executors.newSingleThreadExecutor();
+        var task = executor.submit(() -> batch.solve(new BufferedReader(new StringReader(input)), new BufferedWriter(sink)));
+        try {
+            // the first result reaches the sink while the second search still runs
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (sink.toString().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(task.isDone());
+            assertTrue(sink.toString().startsWith("1\t" + start + "\t43\t"));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertEquals(2, task.get());
+        assertEquals(2, sink.toString().split(System.lineSeparator()).length);
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchSolver(BreadthFirstSearch::new, 0));
+    }
+
+}
@@ -0,0 +1,63 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.Direction;
+import puzzle.model.PuzzleState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalSearchTest {
+
+    static Stream<PuzzleState> stateProvider() {
+        var random = new Random(1);
+        return IntStream.range(0, 8).mapToObj(i -> {
+            var state = new PuzzleState();
+            for (var step = 0; step < 40 * i; step++) {
+                var tile = random.nextInt(5);
+                var direction = Direction.values()[random.nextInt(4)];
+                if (state.canMove(tile, direction)) {
+                    state.move(tile, direction);
+                }
+            }
+            return state;
+        });
+    }
+
+    static List<PuzzleState> states(Node node) {
+        var states = new ArrayList<PuzzleState>();
+        for (var current = Optional.of(node); current.isPresent(); current = current.get().getParent()) {
+            states.add(0, current.get().getState());
+        }
+        return states;
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        var actual = new BidirectionalSearch().search(state);
+        assertTrue(expected.isPresent());
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(states(expected.get()), states(actual.get()));
+    }
+
+    @Test
+    void search_expandsFewerStates() {
+        var bfs = new BreadthFirstSearch();
+        var bidirectional = new BidirectionalSearch();
+        bfs.search(new PuzzleState());
+        bidirectional.search(new PuzzleState());
+        assertTrue(bidirectional.getExpandedCount() < bfs.getExpandedCount());
+    }
+
+}
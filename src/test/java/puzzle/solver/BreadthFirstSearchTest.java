@@ -0,0 +1,67 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BreadthFirstSearchTest {
+
+    static int length(Node node) {
+        var length = 0;
+        for (var current = node; current.getParent().isPresent(); current = current.getParent().get()) {
+            length++;
+        }
+        return length;
+    }
+
+    static void assertValidPath(PuzzleState start, Node node) {
+        assertTrue(node.getState().isGoal());
+        var current = node;
+        while (current.getParent().isPresent()) {
+            var parent = current.getParent().get();
+            var direction = current.getDirection().get();
+            var moved = false;
+            for (var tile = 0; tile < 5; tile++) {
+                if (parent.getState().canMove(tile, direction)) {
+                    var state = parent.getState().clone();
+                    state.move(tile, direction);
+                    moved |= state.equals(current.getState());
+                }
+            }
+            assertTrue(moved, "illegal step to " + current);
+            current = parent;
+        }
+        assertEquals(start, current.getState());
+    }
+
+    @Test
+    void search() {
+        var start = new PuzzleState();
+        var bfs = new BreadthFirstSearch();
+        var result = bfs.search(start);
+        assertTrue(result.isPresent());
+        assertValidPath(start, result.get());
+        assertEquals(43, length(result.get()));
+        assertTrue(bfs.getPeakFrontierSize() > 0);
+        assertTrue(bfs.getFrontierBytes() > 0);
+        assertTrue(bfs.getArenaSize() > 0);
+        // the arrays at most double the bytes each node takes
+        assertTrue(bfs.getArenaBytes() <= 2L * bfs.getArenaSize() * SearchArena.NODE_BYTES);
+    }
+
+    @Test
+    void search_goal() {
+        var goal = new PuzzleState(new Position(1, 1),
+                new Position(0, 0),
+                new Position(0, 2),
+                new Position(2, 0),
+                new Position(2, 2));
+        var result = new BreadthFirstSearch().search(goal);
+        assertTrue(result.isPresent());
+        assertEquals(0, length(result.get()));
+        assertEquals(goal, result.get().getState());
+    }
+
+}
@@ -0,0 +1,56 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.CompiledPuzzle;
+import puzzle.model.PuzzleDefinition;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledBreadthFirstSearchTest {
+
+    static final CompiledPuzzle DEFAULT = CompiledPuzzle.compile(PuzzleDefinition.defaultDefinition());
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search_sameAsBreadthFirstSearch(PuzzleState state) {
+        var expected = BidirectionalSearchTest.states(new BreadthFirstSearch().search(state).orElseThrow());
+        var moves = new CompiledBreadthFirstSearch(DEFAULT).search(state.getPacked()).orElseThrow();
+        var actual = new ArrayList<PuzzleState>();
+        var packed = state.getPacked();
+        actual.add(new PuzzleState(packed));
+        for (var move : moves) {
+            packed = DEFAULT.move(packed, move);
+            actual.add(new PuzzleState(packed));
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void search_largerBoard() throws IOException {
+        var definition = PuzzleDefinition.parse(new String(PuzzleDefinition.class
+                .getResourceAsStream(PuzzleDefinition.DEFAULT_RESOURCE).readAllBytes()).replace("board 4 6", "board 5 6"));
+        var solver = new CompiledBreadthFirstSearch(CompiledPuzzle.compile(definition));
+        var moves = solver.search();
+        assertTrue(moves.isPresent());
+        assertTrue(moves.get().length > 0);
+        assertTrue(solver.getExpandedCount() > 0);
+    }
+
+    @Test
+    void search_default() {
+        var moves = new CompiledBreadthFirstSearch(DEFAULT).search();
+        assertEquals(43, moves.orElseThrow().length);
+    }
+
+}
@@ -0,0 +1,102 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistanceTableTest {
+
+    static DistanceTable table;
+
+    @BeforeAll
+    static void build() {
+        table = DistanceTable.build();
+    }
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    @Test
+    void distance() {
+        assertEquals(43, table.distance(new PuzzleState().getPacked()));
+        for (var goal : PackedState.goals()) {
+            assertEquals(0, table.distance(goal));
+            assertEquals(-1, table.nextMove(goal));
+        }
+        assertEquals(DistanceTable.UNREACHABLE, table.distance(0L));
+        assertTrue(table.getReachableCount() > 0);
+        assertTrue(table.getMaxDistance() >= 43);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        var actual = new DistanceTableSearch(table).search(state);
+        assertTrue(actual.isPresent());
+        assertEquals(BidirectionalSearchTest.states(expected.get()), BidirectionalSearchTest.states(actual.get()));
+    }
+
+    @Test
+    void writeToAndMap(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("distances.bin");
+        table.writeTo(path);
+        assertEquals(DistanceTableFile.HEADER_SIZE + (long) DistanceTable.SIZE, Files.size(path));
+        var mapped = DistanceTable.map(path);
+        assertEquals(table.getReachableCount(), mapped.getReachableCount());
+        assertEquals(table.getMaxDistance(), mapped.getMaxDistance());
+        for (var goal : PackedState.goals()) {
+            assertEquals(0, mapped.distance(goal));
+        }
+        stateProvider().mapToLong(PuzzleState::getPacked).forEach(state -> {
+            assertEquals(table.distance(state), mapped.distance(state));
+            assertEquals(table.nextMove(state), mapped.nextMove(state));
+        });
+        assertEquals(43, new DistanceTableSearch(mapped).search(new PuzzleState()).map(BreadthFirstSearchTest::length).orElse(-1));
+    }
+
+    @Test
+    void map_stale(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("distances.bin");
+        table.writeTo(path);
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(Integer.BYTES);
+            file.writeInt(DistanceTableFile.VERSION + 1);
+        }
+        assertThrows(StaleTableException.class, () -> DistanceTable.map(path));
+        try (var file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(Integer.BYTES);
+            file.writeInt(DistanceTableFile.VERSION);
+            file.seek(5 * Integer.BYTES);
+            file.writeLong(~DistanceTableFile.pieceSetChecksum());
+        }
+        assertThrows(StaleTableException.class, () -> DistanceTable.map(path));
+        Files.write(path, new byte[] {'P', 'Z'});
+        assertThrows(StaleTableException.class, () -> DistanceTable.map(path));
+        assertThrows(IOException.class, () -> DistanceTable.map(directory.resolve("missing.bin")));
+    }
+
+    @Test
+    void mapOrBuild_stale(@TempDir Path directory) throws IOException {
+        var path = directory.resolve("distances.bin");
+        Files.write(path, new byte[DistanceTableFile.HEADER_SIZE]);
+        var mapped = DistanceTable.mapOrBuild(path);
+        assertEquals(table.getReachableCount(), mapped.getReachableCount());
+        assertEquals(43, mapped.distance(new PuzzleState().getPacked()));
+        assertEquals(DistanceTableFile.HEADER_SIZE + (long) DistanceTable.SIZE, Files.size(path));
+    }
+
+}
@@ -0,0 +1,171 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import puzzle.model.CompiledPuzzle;
+import puzzle.model.PackedState;
+import puzzle.model.Position;
+import puzzle.model.PuzzleDefinition;
+import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalBreadthFirstSearchTest {
+
+    static final CompiledPuzzle DEFAULT = CompiledPuzzle.compile(PuzzleDefinition.defaultDefinition());
+
+    @TempDir
+    Path directory;
+
+    static long[] layerSizes(CompiledPuzzle puzzle, long start) {
+        var sizes = new ArrayList<Long>();
+        var seen = new LongHashSet();
+        seen.add(start);
+        var layer = new long[] {start};
+        var moves = new int[puzzle.moves()];
+        while (layer.length > 0) {
+            sizes.add((long) layer.length);
+            var next = new ArrayList<Long>();
+            for (var state : layer) {
+                var count = puzzle.successors(state, moves);
+                for (var i = 0; i < count; i++) {
+                    var child = puzzle.move(state, moves[i]);
+                    if (seen.add(child)) {
+                        next.add(child);
+                    }
+                }
+            }
+            layer = next.stream().mapToLong(Long::longValue).toArray();
+        }
+        return sizes.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * {@return the number of moves of a shortest path from the packed state
+     * to a goal state, or {@code -1} if no goal state is reachable}
+     */
+    static int distance(CompiledPuzzle puzzle, long start) {
+        var seen = new LongHashSet();
+        seen.add(start);
+        var layer = new long[] {start};
+        var moves = new int[puzzle.moves()];
+        for (var depth = 0; layer.length > 0; depth++) {
+            var next = new ArrayList<Long>();
+            for (var state : layer) {
+                if (puzzle.isGoal(state)) {
+                    return depth;
+                }
+                var count = puzzle.successors(state, moves);
+                for (var i = 0; i < count; i++) {
+                    var child = puzzle.move(state, moves[i]);
+                    if (seen.add(child)) {
+                        next.add(child);
+                    }
+                }
+            }
+            layer = next.stream().mapToLong(Long::longValue).toArray();
+        }
+        return -1;
+    }
+
+    @Test
+    void search() throws IOException {
+        var solver = new ExternalBreadthFirstSearch(DEFAULT, directory, 1000);
+        var moves = solver.search(DEFAULT.start()).orElseThrow();
+        var expected = new BreadthFirstSearch().search(new PuzzleState()).orElseThrow().getMoves();
+        assertEquals(expected.length, moves.length);
+        var state = DEFAULT.start();
+        for (var move : moves) {
+            var legal = new int[DEFAULT.moves()];
+            var count = DEFAULT.successors(state, legal);
+            assertTrue(IntStream.of(legal).limit(count).anyMatch(m -> m == move));
+            state = DEFAULT.move(state, move);
+        }
+        assertTrue(DEFAULT.isGoal(state));
+        assertEquals(44, solver.getLayerSizes().length);
+        assertTrue(solver.getBytesWritten() > 0);
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void search_goal() throws IOException {
+        var goal = new PuzzleState(new Position(1, 1),
+                new Position(0, 0),
+                new Position(0, 2),
+                new Position(2, 0),
+                new Position(2, 2)).getPacked();
+        var solver = new ExternalBreadthFirstSearch(DEFAULT, directory, 100);
+        assertEquals(0, solver.search(goal).orElseThrow().length);
+    }
+
+    @Test
+    void sweep() throws IOException {
+        var expected = layerSizes(DEFAULT, DEFAULT.start());
+        var solver = new ExternalBreadthFirstSearch(DEFAULT, directory, DEFAULT.moves());
+        assertArrayEquals(expected, solver.sweep(DEFAULT.start()));
+        assertEquals(5499, Arrays.stream(expected).sum());
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void sweep_largerBoard() throws IOException {
+        var text = new String(PuzzleDefinition.class.getResourceAsStream(PuzzleDefinition.DEFAULT_RESOURCE).readAllBytes());
+        var puzzle = CompiledPuzzle.compile(PuzzleDefinition.parse(text.replace("board 4 6", "board 5 6")));
+        var expected = layerSizes(puzzle, puzzle.start());
+        var solver = new ExternalBreadthFirstSearch(puzzle, directory, 64);
+        assertArrayEquals(expected, solver.sweep(puzzle.start()));
+        // some layers need more runs than are merged at once
+        assertTrue(solver.getRunCount() > 64 * expected.length);
+    }
+
+    @Test
+    void search_overhanging() throws IOException {
+        // a piece hanging over the edge can move onto the board but not back
+        var random = new Random(0);
+        var solver = new ExternalBreadthFirstSearch(DEFAULT, directory, 1000);
+        for (var count = 0; count < 20; ) {
+            var start = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                start = PackedState.withCell(start, tile, random.nextInt(PackedState.CELLS));
+            }
+            var expected = distance(DEFAULT, start);
+            if (!PackedState.isValid(start) || DEFAULT.fitsOnBoard(start) || expected < 0) {
+                continue;
+            }
+            var moves = solver.search(start).orElseThrow();
+            assertEquals(expected, moves.length);
+            var state = start;
+            for (var move : moves) {
+                var legal = new int[DEFAULT.moves()];
+                var legalCount = DEFAULT.successors(state, legal);
+                assertTrue(IntStream.of(legal).limit(legalCount).anyMatch(m -> m == move));
+                state = DEFAULT.move(state, move);
+            }
+            assertTrue(DEFAULT.isGoal(state));
+            assertArrayEquals(layerSizes(DEFAULT, start), solver.sweep(start));
+            count++;
+        }
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ExternalBreadthFirstSearch(DEFAULT, directory, 10));
+    }
+
+}
@@ -0,0 +1,55 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrontierTest {
+
+    @Test
+    void offerAndPoll() {
+        var frontier = new Frontier(4);
+        frontier.offer(10, -1, 0);
+        frontier.offer(11, 0, 5);
+        assertEquals(2, frontier.size());
+        var slot = frontier.poll();
+        assertEquals(10, frontier.state(slot));
+        assertEquals(-1, frontier.parent(slot));
+        assertEquals(0, frontier.move(slot));
+        slot = frontier.poll();
+        assertEquals(11, frontier.state(slot));
+        assertEquals(0, frontier.parent(slot));
+        assertEquals(5, frontier.move(slot));
+        assertTrue(frontier.isEmpty());
+    }
+
+    @Test
+    void grow() {
+        var frontier = new Frontier(4);
+        // wrap around the ring before it has to grow
+        for (var i = 0; i < 3; i++) {
+            frontier.offer(i, i, i);
+        }
+        frontier.poll();
+        frontier.poll();
+        for (var i = 3; i < 100; i++) {
+            frontier.offer(i, i, i);
+        }
+        for (var i = 2; i < 100; i++) {
+            var slot = frontier.poll();
+            assertEquals(i, frontier.state(slot));
+            assertEquals(i, frontier.parent(slot));
+            assertEquals(i, frontier.move(slot));
+        }
+        assertTrue(frontier.isEmpty());
+        assertEquals(98, frontier.peakSize());
+        assertEquals(128, frontier.capacity());
+        assertEquals(128 * 13, frontier.bytesUsed());
+    }
+
+    @Test
+    void poll_shouldThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new Frontier().poll());
+    }
+
+}
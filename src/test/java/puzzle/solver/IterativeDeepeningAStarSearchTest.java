@@ -0,0 +1,47 @@
+package puzzle.solver;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.Direction;
+import puzzle.model.Position;
+import puzzle.model.PuzzleState;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeDeepeningAStarSearchTest {
+
+    // iterative deepening revisits transpositions, so keep the solutions short
+    static Stream<PuzzleState> stateProvider() {
+        var random = new Random(2);
+        return IntStream.range(0, 8).mapToObj(i -> {
+            var state = new PuzzleState(new Position(1, 1),
+                    new Position(0, 0),
+                    new Position(0, 2),
+                    new Position(2, 0),
+                    new Position(2, 2));
+            for (var step = 0; step < 2 * i; step++) {
+                var tile = random.nextInt(5);
+                var direction = Direction.values()[random.nextInt(4)];
+                if (state.canMove(tile, direction)) {
+                    state.move(tile, direction);
+                }
+            }
+            return state;
+        });
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        var actual = new IterativeDeepeningAStarSearch().search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(BidirectionalSearchTest.states(expected.get()), BidirectionalSearchTest.states(actual.get()));
+    }
+
+}
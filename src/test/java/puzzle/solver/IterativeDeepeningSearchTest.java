@@ -0,0 +1,81 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PuzzleState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IterativeDeepeningSearchTest {
+
+    @Test
+    void search_start() {
+        var state = new PuzzleState();
+        var solver = new IterativeDeepeningSearch();
+        var actual = solver.search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(43, actual.get().getMoves().length);
+        assertTrue(solver.getExpandedCount() > 0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("puzzle.solver.IterativeDeepeningAStarSearchTest#stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        var actual = new IterativeDeepeningSearch().search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(expected.get().getMoves().length, actual.get().getMoves().length);
+    }
+
+    @ParameterizedTest
+    @MethodSource("puzzle.solver.IterativeDeepeningAStarSearchTest#stateProvider")
+    void search_tinyTable(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        var actual = new IterativeDeepeningSearch(4).search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(expected.get().getMoves().length, actual.get().getMoves().length);
+    }
+
+    @Test
+    void search_start_tableTooSmall() {
+        // about a third of the states searched fit in the table
+        var solver = new IterativeDeepeningSearch(10);
+        var state = new PuzzleState();
+        var actual = solver.search(state);
+        assertTrue(actual.isPresent());
+        BreadthFirstSearchTest.assertValidPath(state, actual.get());
+        assertEquals(43, actual.get().getMoves().length);
+        assertTrue(solver.getTable().replacements() > 0);
+    }
+
+    @Test
+    void search_reusesTable() {
+        var solver = new IterativeDeepeningSearch(12);
+        var first = solver.search(new PuzzleState());
+        var second = solver.search(new PuzzleState());
+        assertEquals(first.get().getMoves().length, second.get().getMoves().length);
+        assertEquals(1 << 12, solver.getTable().capacity());
+    }
+
+    @Test
+    void factory_maxBytes() {
+        var solver = (IterativeDeepeningSearch) Solver.factory("iddfs:100000").get();
+        assertEquals(1 << 13, solver.getTable().capacity());
+        assertTrue(solver.getTable().bytesUsed() <= 100_000);
+        solver = (IterativeDeepeningSearch) Solver.factory("iddfs").get();
+        assertEquals(1 << IterativeDeepeningSearch.DEFAULT_TABLE_BITS, solver.getTable().capacity());
+        assertThrows(IllegalArgumentException.class, () -> Solver.factory("iddfs:1"));
+        assertThrows(IllegalArgumentException.class, () -> Solver.factory("iddfs:much"));
+    }
+
+    @Test
+    void constructor() {
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepeningSearch(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepeningSearch(31));
+    }
+
+}
@@ -0,0 +1,49 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ManhattanHeuristicTest {
+
+    ManhattanHeuristic heuristic = new ManhattanHeuristic();
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void estimate_isAdmissible(PuzzleState state) {
+        var length = BreadthFirstSearchTest.length(new BreadthFirstSearch().search(state).get());
+        assertTrue(heuristic.estimate(state.getPacked()) <= length);
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void estimate_isConsistent(PuzzleState state) {
+        var packed = state.getPacked();
+        for (var move = 0; move < PackedState.MOVES; move++) {
+            var tile = PackedState.tileOf(move);
+            var direction = PackedState.directionOf(move);
+            if (PackedState.canMove(packed, tile, direction)) {
+                var child = PackedState.move(packed, tile, direction);
+                assertTrue(Math.abs(heuristic.estimate(packed) - heuristic.estimate(child)) <= 1);
+            }
+        }
+    }
+
+    @Test
+    void estimate_goal() {
+        for (var goal : PackedState.goals()) {
+            assertEquals(0, heuristic.estimate(goal));
+        }
+    }
+
+}
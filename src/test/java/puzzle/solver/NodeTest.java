@@ -0,0 +1,43 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeTest {
+
+    @Test
+    void nextChild() {
+        var state = new PuzzleState();
+        var moves = new int[PackedState.MOVES];
+        var count = state.getLegalMoves(moves);
+        var node = new Node(state);
+        var children = new HashSet<PuzzleState>();
+        for (var i = 0; i < count; i++) {
+            assertTrue(node.hasNextChild());
+            var child = node.nextChild();
+            assertTrue(child.isPresent());
+            assertSame(node, child.get().getParent().orElseThrow());
+            assertEquals(PackedState.directionOf(moves[i]), child.get().getDirection().orElseThrow());
+            assertEquals(PackedState.move(state.getPacked(), moves[i]), child.get().getState().getPacked());
+            children.add(child.get().getState());
+        }
+        assertEquals(count, children.size());
+        assertFalse(node.hasNextChild());
+        assertTrue(node.nextChild().isEmpty());
+    }
+
+    @Test
+    void getMoves() {
+        var start = new PuzzleState().getPacked();
+        var moves = new BreadthFirstSearch().search(new PuzzleState()).orElseThrow().getMoves();
+        assertEquals(43, moves.length);
+        assertArrayEquals(moves, Node.of(start, moves).getMoves());
+        assertEquals(0, new Node(new PuzzleState()).getMoves().length);
+    }
+
+}
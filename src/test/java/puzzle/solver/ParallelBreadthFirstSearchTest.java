@@ -0,0 +1,68 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBreadthFirstSearchTest {
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state);
+        for (var parallelism : new int[] {1, 4}) {
+            var actual = new ParallelBreadthFirstSearch(parallelism).search(state);
+            assertTrue(actual.isPresent());
+            BreadthFirstSearchTest.assertValidPath(state, actual.get());
+            assertEquals(BidirectionalSearchTest.states(expected.get()), BidirectionalSearchTest.states(actual.get()));
+        }
+    }
+
+    @Test
+    void search_defaultStart() {
+        var solver = new ParallelBreadthFirstSearch(3);
+        var result = solver.search(new PuzzleState());
+        assertTrue(result.isPresent());
+        assertEquals(43, BreadthFirstSearchTest.length(result.get()));
+        assertTrue(solver.getExpandedCount() > 0);
+    }
+
+    @Test
+    void search_goal() {
+        var goal = new PuzzleState(PackedState.goals()[0]);
+        var result = new ParallelBreadthFirstSearch().search(goal);
+        assertTrue(result.isPresent());
+        assertEquals(0, BreadthFirstSearchTest.length(result.get()));
+    }
+
+    @Test
+    void constructor_invalidParallelism() {
+        assertThrows(IllegalArgumentException.class, () -> new ParallelBreadthFirstSearch(0));
+    }
+
+    @Test
+    void factory_parallelism() {
+        var solver = (ParallelBreadthFirstSearch) Solver.factory("parallel-bfs:3").get();
+        assertEquals(3, solver.getParallelism());
+        solver = (ParallelBreadthFirstSearch) Solver.factory("parallel-bfs").get();
+        assertEquals(Runtime.getRuntime().availableProcessors(), solver.getParallelism());
+    }
+
+    @Test
+    void factory_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> Solver.factory("parallel-bfs:0"));
+        assertThrows(IllegalArgumentException.class, () -> Solver.factory("parallel-bfs:many"));
+        assertThrows(IllegalArgumentException.class, () -> Solver.factory("bfs:2"));
+    }
+
+}
@@ -0,0 +1,77 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PuzzleGeneratorTest {
+
+    static DistanceTable table;
+
+    @BeforeAll
+    static void build() {
+        table = DistanceTable.build();
+    }
+
+    @Test
+    void generate() {
+        var states = new PuzzleGenerator(table, 4).generate(42, 1000, 20, 30);
+        assertEquals(1000, states.length);
+        for (var state : states) {
+            assertTrue(PackedState.isValid(state));
+            var distance = table.distance(state);
+            assertTrue(distance >= 20 && distance <= 30);
+        }
+    }
+
+    @Test
+    void generate_exactDistance() {
+        var states = new PuzzleGenerator(table, 2).generate(7, 5, 25, 25);
+        for (var state : states) {
+            var solution = new BreadthFirstSearch().search(new PuzzleState(state));
+            assertEquals(25, solution.orElseThrow().getMoves().length);
+        }
+    }
+
+    @Test
+    void generate_reproducible() {
+        var expected = new PuzzleGenerator(table, 1).generate(123, 200, 0, 40);
+        assertArrayEquals(expected, new PuzzleGenerator(table, 4).generate(123, 200, 0, 40));
+        assertNotEquals(expected[0], new PuzzleGenerator(table, 4).generate(124, 1, 0, 40)[0]);
+    }
+
+    @Test
+    void count() {
+        var generator = new PuzzleGenerator(table, 1);
+        assertEquals(PackedState.goals().length, generator.count(0));
+        assertTrue(generator.count(43) > 0);
+        assertTrue(generator.count(generator.getMaxDistance()) > 0);
+        assertEquals(0, generator.count(generator.getMaxDistance() + 1));
+        assertEquals(0, generator.count(-1));
+        assertTrue(generator.getMaxDistance() <= table.getMaxDistance());
+    }
+
+    @Test
+    void next() {
+        var generator = new PuzzleGenerator(table, 1);
+        var random = new SplittableRandom(1);
+        assertTrue(PackedState.isGoal(generator.next(random, 0, 0)));
+        assertEquals(43, table.distance(generator.next(random, 43, 43)));
+    }
+
+    @Test
+    void generate_shouldThrowIllegalArgumentException() {
+        var generator = new PuzzleGenerator(table, 1);
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(0, -1, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(0, 1, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(0, 1, 5, 4));
+        assertThrows(IllegalArgumentException.class, () -> generator.generate(0, 1, 0, generator.getMaxDistance() + 1));
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(table, 0));
+    }
+
+}
@@ -0,0 +1,58 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import puzzle.model.Direction;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchArenaTest {
+
+    @Test
+    void add() {
+        var arena = new SearchArena(2);
+        var root = arena.add(10, SearchArena.NO_PARENT, 0);
+        var child = arena.add(11, root, 5);
+        var grandchild = arena.add(12, child, 19);
+        assertEquals(3, arena.size());
+        assertEquals(4, arena.capacity());
+        assertEquals(11, arena.state(child));
+        assertEquals(root, arena.parent(child));
+        assertEquals(SearchArena.NO_PARENT, arena.parent(root));
+        assertEquals(19, arena.move(grandchild));
+        assertEquals(0, arena.depth(root));
+        assertEquals(2, arena.depth(grandchild));
+        assertEquals(root, arena.root(grandchild));
+        assertArrayEquals(new int[] {5, 19}, arena.path(grandchild));
+    }
+
+    @Test
+    void toNode() {
+        var arena = new SearchArena();
+        var start = new PuzzleState().getPacked();
+        var move = PackedState.moveOf(PuzzleState.SQUARE, Direction.DOWN);
+        var moved = PackedState.move(start, move);
+        var root = arena.add(start, SearchArena.NO_PARENT, 0);
+        var node = arena.toNode(arena.add(moved, root, move));
+        assertEquals(moved, node.getState().getPacked());
+        assertEquals(Direction.DOWN, node.getDirection().orElseThrow());
+        assertEquals(start, node.getParent().orElseThrow().getState().getPacked());
+    }
+
+    @Test
+    void bytesUsedAndClear() {
+        var arena = new SearchArena(8);
+        assertEquals(8L * SearchArena.NODE_BYTES, arena.bytesUsed());
+        arena.add(1, SearchArena.NO_PARENT, 0);
+        arena.clear();
+        assertEquals(0, arena.size());
+        assertEquals(8, arena.capacity());
+    }
+
+    @Test
+    void constructor_invalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new SearchArena(0));
+    }
+
+}
@@ -0,0 +1,101 @@
+package puzzle.solver;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.PuzzleState;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchStatisticsTest {
+
+    static Stream<Solver> solverProvider() {
+        return Stream.of(new BreadthFirstSearch(),
+                new ParallelBreadthFirstSearch(2),
+                new BidirectionalSearch(),
+                new AStarSearch());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solverProvider")
+    void solve(Solver solver) {
+        var result = solver.solve(new PuzzleState());
+        assertTrue(result.path().isPresent());
+        var statistics = result.statistics();
+        assertTrue(statistics.expandedCount() > 0);
+        assertTrue(statistics.generatedCount() >= statistics.expandedCount());
+        assertTrue(statistics.duplicateCount() > 0);
+        assertTrue(statistics.duplicateCount() <= statistics.generatedCount());
+        assertTrue(statistics.peakFrontierSize() > 0);
+        assertTrue(statistics.peakVisitedSize() > 0);
+        assertTrue(statistics.elapsedNanos() > 0);
+        assertTrue(statistics.nanosPerExpansion() > 0);
+    }
+
+    @ParameterizedTest
+    @MethodSource("puzzle.solver.SearchStatisticsTest#solverNameProvider")
+    void solve_interrupted(String name) {
+        var solver = Solver.factory(name).get();
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> solver.solve(new PuzzleState()));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    static Stream<String> solverNameProvider() {
+        return Stream.of("bfs", "parallel-bfs", "symmetric-bfs", "bidirectional", "astar", "idastar", "iddfs");
+    }
+
+    @Test
+    void solve_breadthFirstSearch() {
+        var bfs = new BreadthFirstSearch();
+        var statistics = bfs.solve(new PuzzleState()).statistics();
+        assertEquals(bfs.getExpandedCount(), statistics.expandedCount());
+        assertEquals(bfs.getPeakFrontierSize(), statistics.peakFrontierSize());
+        // every state generated is either new or a duplicate
+        assertEquals(statistics.generatedCount() - statistics.duplicateCount() + 1, statistics.peakVisitedSize());
+    }
+
+    @Test
+    void nanosPerExpansion() {
+        assertEquals(0, new SearchStatistics(0, 0, 0, 0, 0, 100).nanosPerExpansion());
+        assertEquals(25, new SearchStatistics(4, 0, 0, 0, 0, 100).nanosPerExpansion());
+    }
+
+    @Test
+    void events(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("search.jfr");
+        try (var recording = new Recording()) {
+            recording.enable("puzzle.solver.SearchStart");
+            recording.enable("puzzle.solver.SearchLayer");
+            recording.enable("puzzle.solver.SearchCompleted");
+            recording.start();
+            new BreadthFirstSearch().solve(new PuzzleState());
+            recording.stop();
+            recording.dump(file);
+        }
+        var events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertEquals(1, events.get("puzzle.solver.SearchStart").size());
+        // one layer for every depth up to the 43 moves of the solution
+        assertEquals(44, events.get("puzzle.solver.SearchLayer").size());
+        RecordedEvent completed = events.get("puzzle.solver.SearchCompleted").get(0);
+        assertEquals("BreadthFirstSearch", completed.getString("solver"));
+        assertTrue(completed.getBoolean("solved"));
+        assertEquals(43, completed.getInt("pathLength"));
+    }
+
+}
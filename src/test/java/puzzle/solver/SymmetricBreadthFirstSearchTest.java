@@ -0,0 +1,126 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import puzzle.model.MoveGenerator;
+import puzzle.model.PackedState;
+import puzzle.model.PuzzleState;
+import puzzle.util.LongHashSet;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymmetricBreadthFirstSearchTest {
+
+    private static DistanceTable table;
+
+    static synchronized DistanceTable table() {
+        if (table == null) {
+            table = DistanceTable.build();
+        }
+        return table;
+    }
+
+    static Stream<PuzzleState> stateProvider() {
+        return BidirectionalSearchTest.stateProvider();
+    }
+
+    /**
+     * {@return solvable states with a piece hanging over the edge of the
+     * board, which have no mirror images}
+     */
+    static Stream<PuzzleState> overhangingStateProvider() {
+        var random = new Random(0);
+        var states = Stream.<PuzzleState>builder();
+        states.add(PuzzleState.parse("[(3,5),(0,1),(2,3),(2,0),(0,3)]"));
+        states.add(PuzzleState.parse("[(1,3),(0,2),(2,5),(2,2),(2,0)]"));
+        states.add(PuzzleState.parse("[(1,3),(2,1),(0,5),(0,0),(3,1)]"));
+        var count = 0;
+        while (count < 100) {
+            var state = 0L;
+            for (var tile = 0; tile < PackedState.PIECES; tile++) {
+                state = PackedState.withCell(state, tile, random.nextInt(PackedState.CELLS));
+            }
+            if (!PackedState.fitsOnBoard(state) && table().distance(state) != DistanceTable.UNREACHABLE
+                    && isRepresentable(state)) {
+                states.add(new PuzzleState(state));
+                count++;
+            }
+        }
+        return states.build();
+    }
+
+    /**
+     * {@return whether every state reachable from the packed state specified
+     * is a valid {@code PuzzleState}} Unlike {@link PackedState}, a
+     * {@code PuzzleState} does not allow two pieces to overlap off the board,
+     * so a path through such a state cannot be returned as nodes.
+     */
+    private static boolean isRepresentable(long start) {
+        var seen = new LongHashSet();
+        var queue = new ArrayDeque<Long>();
+        var moves = new int[PackedState.MOVES];
+        seen.add(start);
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            var state = queue.poll();
+            try {
+                new PuzzleState(state);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            var count = MoveGenerator.successors(state, moves);
+            for (var i = 0; i < count; i++) {
+                var child = PackedState.move(state, moves[i]);
+                if (seen.add(child)) {
+                    queue.add(child);
+                }
+            }
+        }
+        return true;
+    }
+
+    @ParameterizedTest
+    @MethodSource("stateProvider")
+    void search_shortestPath(PuzzleState state) {
+        var expected = new BreadthFirstSearch().search(state).orElseThrow();
+        var node = new SymmetricBreadthFirstSearch().search(state).orElseThrow();
+        // a valid path of the same length
+        var states = BidirectionalSearchTest.states(node);
+        assertEquals(BidirectionalSearchTest.states(expected).size(), states.size());
+        assertEquals(state, states.get(0));
+        assertTrue(states.get(states.size() - 1).isGoal());
+        var moves = node.getMoves();
+        for (var i = 1; i < states.size(); i++) {
+            var next = states.get(i - 1).clone();
+            next.move(PackedState.tileOf(moves[i - 1]), PackedState.directionOf(moves[i - 1]));
+            assertEquals(states.get(i), next);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("overhangingStateProvider")
+    void search_overhanging(PuzzleState state) {
+        var expected = table().distance(state.getPacked());
+        var node = new SymmetricBreadthFirstSearch().search(state).orElseThrow();
+        BreadthFirstSearchTest.assertValidPath(state, node);
+        assertEquals(expected, node.getMoves().length);
+    }
+
+    @Test
+    void search_visitsFewerStates() {
+        var bfs = new BreadthFirstSearch();
+        var symmetric = new SymmetricBreadthFirstSearch();
+        var expected = bfs.solve(new PuzzleState());
+        var actual = symmetric.solve(new PuzzleState());
+        assertEquals(43, actual.path().orElseThrow().getMoves().length);
+        // the reachable states come in groups of mirror images
+        assertTrue(3 * actual.statistics().peakVisitedSize() < expected.statistics().peakVisitedSize());
+        assertTrue(3 * actual.statistics().expandedCount() < expected.statistics().expandedCount());
+    }
+
+}
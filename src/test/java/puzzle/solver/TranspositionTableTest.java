@@ -0,0 +1,73 @@
+package puzzle.solver;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void bound_missing() {
+        var table = new TranspositionTable(4);
+        assertEquals(0, table.bound(42));
+    }
+
+    @Test
+    void store() {
+        var table = new TranspositionTable(4);
+        table.store(42, 7, 3);
+        assertEquals(7, table.bound(42));
+        table.store(42, 5, 9);
+        assertEquals(7, table.bound(42));
+        table.store(42, 9, 1);
+        assertEquals(9, table.bound(42));
+        assertEquals(1, table.stores());
+    }
+
+    @Test
+    void store_alwaysReplaces() {
+        var table = new TranspositionTable(0);
+        table.store(1, 4, 5);
+        table.store(2, 6, 4);
+        assertEquals(0, table.bound(1));
+        assertEquals(6, table.bound(2));
+        assertEquals(1, table.replacements());
+    }
+
+    @Test
+    void store_replaceLeastWork() {
+        // a single bucket
+        var table = new TranspositionTable(3);
+        for (var state = 1; state <= TranspositionTable.BUCKET_SIZE; state++) {
+            table.store(state, 10, state == 5 ? 1 : 7);
+        }
+        table.store(42, 3, 2);
+        assertEquals(0, table.bound(5));
+        assertEquals(3, table.bound(42));
+        table.store(43, 3, 2);
+        assertEquals(0, table.bound(42));
+        assertEquals(3, table.bound(43));
+        for (var state = 1; state <= TranspositionTable.BUCKET_SIZE; state++) {
+            assertEquals(state == 5 ? 0 : 10, table.bound(state));
+        }
+        assertEquals(2, table.replacements());
+    }
+
+    @Test
+    void clear() {
+        var table = new TranspositionTable(4);
+        table.store(42, 7, 3);
+        table.clear();
+        assertEquals(0, table.bound(42));
+        assertEquals(0, table.stores());
+    }
+
+    @Test
+    void ofMaxBytes() {
+        assertEquals(1, TranspositionTable.ofMaxBytes(TranspositionTable.ENTRY_BYTES).capacity());
+        assertEquals(1 << 20, TranspositionTable.ofMaxBytes(10L << 20).capacity());
+        assertTrue(TranspositionTable.ofMaxBytes(1000).bytesUsed() <= 1000);
+        assertThrows(IllegalArgumentException.class, () -> TranspositionTable.ofMaxBytes(9));
+    }
+
+}
@@ -0,0 +1,93 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void add() {
+        var set = new LongHashSet();
+        assertTrue(set.add(42));
+        assertFalse(set.add(42));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.add(-1));
+        assertEquals(3, set.size());
+    }
+
+    @Test
+    void contains() {
+        var set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(42));
+        set.add(0);
+        set.add(42);
+        assertTrue(set.contains(0));
+        assertTrue(set.contains(42));
+        assertFalse(set.contains(43));
+    }
+
+    @Test
+    void resize() {
+        var set = new LongHashSet(4, 0.75f);
+        var expected = new HashSet<Long>();
+        var random = new Random(0);
+        for (var i = 0; i < 100_000; i++) {
+            var value = random.nextLong() & 0xFFFF;
+            assertEquals(expected.add(value), set.add(value));
+        }
+        assertEquals(expected.size(), set.size());
+        for (var value : expected) {
+            assertTrue(set.contains(value));
+        }
+        assertTrue(set.size() <= set.capacity() * 0.75f);
+    }
+
+    @Test
+    void toArray() {
+        var set = new LongHashSet();
+        set.add(3);
+        set.add(0);
+        set.add(-5);
+        var values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(new long[] {-5, 0, 3}, values);
+    }
+
+    @Test
+    void clear() {
+        var set = new LongHashSet(16);
+        set.add(0);
+        set.add(7);
+        var capacity = set.capacity();
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(7));
+        assertEquals(capacity, set.capacity());
+    }
+
+    @Test
+    void constructor_default() {
+        var set = new LongHashSet();
+        var capacity = set.capacity();
+        for (var i = 0; i < LongHashSet.DEFAULT_EXPECTED_SIZE; i++) {
+            set.add(i);
+        }
+        assertEquals(capacity, set.capacity());
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(16, 0f));
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(16, 1f));
+    }
+
+}
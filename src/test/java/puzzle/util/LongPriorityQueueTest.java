@@ -0,0 +1,40 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongPriorityQueueTest {
+
+    @Test
+    void poll() {
+        var queue = new LongPriorityQueue(2);
+        var expected = new PriorityQueue<Long>();
+        var random = new Random(0);
+        for (var i = 0; i < 10_000; i++) {
+            if (random.nextInt(3) > 0) {
+                var value = random.nextLong();
+                queue.add(value);
+                expected.add(value);
+            } else if (!expected.isEmpty()) {
+                assertEquals(expected.peek(), queue.peek());
+                assertEquals(expected.poll(), queue.poll());
+            }
+            assertEquals(expected.size(), queue.size());
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll(), queue.poll());
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    void poll_shouldThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> new LongPriorityQueue().poll());
+        assertThrows(IllegalStateException.class, () -> new LongPriorityQueue().peek());
+    }
+
+}
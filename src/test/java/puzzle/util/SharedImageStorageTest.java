@@ -0,0 +1,17 @@
+package puzzle.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedImageStorageTest {
+
+    @Test
+    void get_missingImage() {
+        var storage = new SharedImageStorage("/images", "missing.png");
+        assertEquals(1, storage.size());
+        assertNull(storage.get(0));
+        assertNull(storage.loaded(0).join());
+    }
+
+}
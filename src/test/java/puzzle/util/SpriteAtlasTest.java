@@ -0,0 +1,45 @@
+package puzzle.util;
+
+import javafx.geometry.Rectangle2D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteAtlasTest {
+
+    @Test
+    void layout() {
+        var viewports = SpriteAtlas.layout(new int[] {100, 50, 100}, new int[] {50, 100, 100});
+        // placed by decreasing height
+        assertEquals(new Rectangle2D(0, 0, 50, 100), viewports[1]);
+        assertEquals(new Rectangle2D(50, 0, 100, 100), viewports[2]);
+        assertEquals(new Rectangle2D(150, 0, 100, 50), viewports[0]);
+    }
+
+    @Test
+    void layout_startsNewShelf() {
+        var width = SpriteAtlas.MAX_WIDTH / 2 + 1;
+        var viewports = SpriteAtlas.layout(new int[] {width, width, width}, new int[] {30, 20, 10});
+        assertEquals(new Rectangle2D(0, 0, width, 30), viewports[0]);
+        assertEquals(new Rectangle2D(0, 30, width, 20), viewports[1]);
+        assertEquals(new Rectangle2D(0, 50, width, 10), viewports[2]);
+    }
+
+    @Test
+    void layout_noOverlaps() {
+        var widths = new int[50];
+        var heights = new int[50];
+        for (var i = 0; i < widths.length; i++) {
+            widths[i] = 37 + 13 * i % 200;
+            heights[i] = 11 + 29 * i % 150;
+        }
+        var viewports = SpriteAtlas.layout(widths, heights);
+        for (var i = 0; i < viewports.length; i++) {
+            assertTrue(viewports[i].getMaxX() <= SpriteAtlas.MAX_WIDTH);
+            for (var j = i + 1; j < viewports.length; j++) {
+                assertFalse(viewports[i].intersects(viewports[j]), i + " and " + j);
+            }
+        }
+    }
+
+}